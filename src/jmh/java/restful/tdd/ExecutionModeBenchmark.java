@@ -0,0 +1,77 @@
+package restful.tdd;
+
+import jakarta.ws.rs.GET;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(64)
+@Fork(1)
+public class ExecutionModeBenchmark {
+    private static final int THREADS = 16;
+    private static final int PORT = 8085;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ExecutionMode mode;
+
+    private Server server;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void start() throws Exception {
+        Stubs.StubRuntime runtime = new Stubs.StubRuntime(List.of(new RootResourceHandler(new Blocking(), new PathTemplate("/blocking")))) {
+            @Override
+            public ExecutionMode getExecutionMode() {
+                return mode;
+            }
+        };
+        server = new Server(new QueuedThreadPool(THREADS, THREADS));
+        ServerConnector connector = new ServerConnector(server, 1, 1);
+        connector.setPort(PORT);
+        server.addConnector(connector);
+
+        ServletContextHandler handler = new ServletContextHandler(server, "/");
+        ServletHolder holder = new ServletHolder(new ResourceServlet(runtime));
+        holder.setAsyncSupported(true);
+        handler.addServlet(holder, "/");
+        server.setHandler(handler);
+        server.start();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/blocking")).GET().build();
+    }
+
+    @TearDown
+    public void stop() throws Exception {
+        server.stop();
+    }
+
+    @Benchmark
+    public int blocking_resource_method() throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    public static class Blocking {
+        @GET
+        public OutboundResponse get() throws InterruptedException {
+            Thread.sleep(5);
+            return new Stubs.OkResponse("ok");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package restful.tdd;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.PathParam;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInvokerBenchmark {
+    private MethodInvoker noParameters;
+    private MethodInvoker pathParameter;
+    private MethodInvoker converted;
+    private StubUriInfoBuilder builder;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        noParameters = new MethodInvoker(Item.class.getMethod("get"));
+        pathParameter = new MethodInvoker(Item.class.getMethod("get", String.class));
+        converted = new MethodInvoker(Item.class.getMethod("get", int.class, long.class));
+
+        builder = new StubUriInfoBuilder();
+        builder.addMatchedResult(new Item());
+        builder.addMatchedPathParameters(Map.of("id", "42", "version", "7"));
+    }
+
+    @Benchmark
+    public Object no_parameters() {
+        return noParameters.invoke(null, builder);
+    }
+
+    @Benchmark
+    public Object path_parameter() {
+        return pathParameter.invoke(null, builder);
+    }
+
+    @Benchmark
+    public Object converted_parameters() {
+        return converted.invoke(null, builder);
+    }
+
+    public static class Item {
+        @GET
+        public String get() {
+            return "item";
+        }
+
+        @GET
+        public String get(@PathParam("id") String id) {
+            return id;
+        }
+
+        @GET
+        public String get(@PathParam("id") int id, @PathParam("version") long version) {
+            return "item";
+        }
+    }
+}
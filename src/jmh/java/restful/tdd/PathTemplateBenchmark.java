@@ -0,0 +1,54 @@
+package restful.tdd;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathTemplateBenchmark {
+    @Param({"/users", "/users/{id}", "/users/{id}/orders/{order}"})
+    public String template;
+
+    private PathTemplate segments;
+    private PathTemplate regex;
+    private String path;
+
+    @Setup
+    public void setup() {
+        segments = new PathTemplate(template, PathTemplate.Strategy.SEGMENTS);
+        regex = new PathTemplate(template, PathTemplate.Strategy.REGEX);
+        path = template.replaceAll("\\{\\w+}", "1") + "/content";
+    }
+
+    @Benchmark
+    public Optional<UriTemplate.MatchResult> segments() {
+        return segments.match(path);
+    }
+
+    @Benchmark
+    public Optional<UriTemplate.MatchResult> regex() {
+        return regex.match(path);
+    }
+
+    @Benchmark
+    public int segments_losing_candidate() {
+        return segments.match(path).get().compareTo(segments.match(path).get());
+    }
+
+    @Benchmark
+    public Map<String, String> segments_with_parameters() {
+        return segments.match(path).get().getMatchedPathParameters();
+    }
+
+    @Benchmark
+    public Map<String, String> regex_with_parameters() {
+        return regex.match(path).get().getMatchedPathParameters();
+    }
+}
@@ -0,0 +1,41 @@
+package restful.tdd;
+
+import jakarta.ws.rs.GET;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(RouteFootprintBenchmark.ROUTES)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RouteFootprintBenchmark {
+    static final int ROUTES = 50_000;
+
+    private final Item item = new Item();
+    private final List<String> templates = new ArrayList<>(ROUTES);
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < ROUTES; i++) templates.add("/tenants/t" + i + "/users/{id}/orders/{order}");
+    }
+
+    @Benchmark
+    public RouteTree<ResourceRouter.Resource> build_route_table() {
+        List<ResourceRouter.Resource> resources = new ArrayList<>(ROUTES);
+        for (String template : templates) resources.add(new RootResourceHandler(item, new PathTemplate(template)));
+        return new RouteTree<>(resources);
+    }
+
+    public static class Item {
+        @GET
+        public String get() {
+            return "item";
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package restful.tdd;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.PathParam;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int routes;
+
+    private String path;
+    private List<ResourceRouter.Resource> resources;
+    private RouteTree<ResourceRouter.Resource> tree;
+    private RouteTree<ResourceRouter.Resource> adaptive;
+    private Stubs.StubRuntime runtime;
+    private ResourceServlet servlet;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        resources = IntStream.range(0, routes)
+                .mapToObj(i -> (ResourceRouter.Resource) new RootResourceHandler(new Item(), new PathTemplate("/items" + i + "/{id}")))
+                .toList();
+        tree = new RouteTree<>(resources);
+        adaptive = new RouteTree<>(resources, true);
+        runtime = new Stubs.StubRuntime(resources);
+        servlet = new ResourceServlet(runtime);
+
+        path = "/items" + routes / 2 + "/42";
+        request = Stubs.request("GET", path);
+        response = Stubs.response();
+    }
+
+    @Benchmark
+    public Optional<UriTemplate.MatchResult> path_template() {
+        return resources.get(routes / 2).getUriTemplate().match(path);
+    }
+
+    @Benchmark
+    public Optional<ResourceRouter.Resource> uri_handlers_list() {
+        return UriHandlers.match(path, resources);
+    }
+
+    @Benchmark
+    public Optional<ResourceRouter.Resource> uri_handlers_tree() {
+        return UriHandlers.match(path, tree, r -> true);
+    }
+
+    @Benchmark
+    public Optional<ResourceRouter.Resource> uri_handlers_adaptive() {
+        return UriHandlers.match(path, adaptive, r -> true);
+    }
+
+    @Benchmark
+    public OutboundResponse dispatch() {
+        return runtime.getResourceRouter().dispatch(request, null);
+    }
+
+    @Benchmark
+    public HttpServletResponse service() throws ServletException, IOException {
+        servlet.service(request, response);
+        return response;
+    }
+
+    public static class Item {
+        @GET
+        public OutboundResponse get(@PathParam("id") String id) {
+            return new Stubs.OkResponse(id);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package restful.tdd;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.*;
+import jakarta.ws.rs.ext.*;
+import tdd.di.Context;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.*;
+
+class Stubs {
+
+    static HttpServletRequest request(String method, String path) {
+        return (HttpServletRequest) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class[]{HttpServletRequest.class}, (proxy, m, args) -> switch (m.getName()) {
+            case "getMethod" -> method;
+            case "getServletPath" -> path;
+            case "getHeader" -> MediaType.WILDCARD;
+            case "getHeaders" -> Collections.enumeration(List.of(MediaType.WILDCARD));
+            default -> null;
+        });
+    }
+
+    static HttpServletResponse response() {
+        ServletOutputStream output = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class[]{HttpServletResponse.class}, (proxy, m, args) -> switch (m.getName()) {
+            case "getOutputStream" -> output;
+            default -> null;
+        });
+    }
+
+    static class StubRuntime implements Runtime {
+        private final ResourceRouter router;
+        private final Providers providers = new StubProviders();
+
+        StubRuntime(List<ResourceRouter.Resource> resources) {
+            this.router = new DefaultResourceRouter(this, resources);
+        }
+
+        @Override
+        public Providers getProviders() {
+            return providers;
+        }
+
+        @Override
+        public ResourceContext createResourceContext(HttpServletRequest request, HttpServletResponse response) {
+            return null;
+        }
+
+        @Override
+        public UriInfoBuilder createUriInfoBuilder(HttpServletRequest request) {
+            return new StubUriInfoBuilder();
+        }
+
+        @Override
+        public Context getApplicationContext() {
+            return null;
+        }
+
+        @Override
+        public ResourceRouter getResourceRouter() {
+            return router;
+        }
+    }
+
+    static class StubProviders implements Providers {
+        private final MessageBodyWriter<Object> writer = new MessageBodyWriter<>() {
+            @Override
+            public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+                return true;
+            }
+
+            @Override
+            public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                                MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) {
+            }
+        };
+
+        @Override
+        public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return (MessageBodyWriter<T>) writer;
+        }
+
+        @Override
+        public <T extends Throwable> ExceptionMapper<T> getExceptionMapper(Class<T> type) {
+            return null;
+        }
+
+        @Override
+        public <T> ContextResolver<T> getContextResolver(Class<T> contextType, MediaType mediaType) {
+            return null;
+        }
+    }
+
+    static class OkResponse extends OutboundResponse {
+        private final GenericEntity<?> entity;
+        private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+        OkResponse(Object entity) {
+            this.entity = new GenericEntity<>(entity, entity.getClass());
+        }
+
+        @Override
+        GenericEntity getGenericEntity() {
+            return entity;
+        }
+
+        @Override
+        Annotation[] getAnnotations() {
+            return new Annotation[0];
+        }
+
+        @Override
+        public int getStatus() {
+            return 200;
+        }
+
+        @Override
+        public StatusType getStatusInfo() {
+            return Status.OK;
+        }
+
+        @Override
+        public Object getEntity() {
+            return entity.getEntity();
+        }
+
+        @Override
+        public <T> T readEntity(Class<T> entityType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T readEntity(GenericType<T> entityType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T readEntity(Class<T> entityType, Annotation[] annotations) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T readEntity(GenericType<T> entityType, Annotation[] annotations) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean hasEntity() {
+            return true;
+        }
+
+        @Override
+        public boolean bufferEntity() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return MediaType.TEXT_PLAIN_TYPE;
+        }
+
+        @Override
+        public Locale getLanguage() {
+            return null;
+        }
+
+        @Override
+        public int getLength() {
+            return -1;
+        }
+
+        @Override
+        public Set<String> getAllowedMethods() {
+            return Set.of();
+        }
+
+        @Override
+        public Map<String, NewCookie> getCookies() {
+            return Map.of();
+        }
+
+        @Override
+        public EntityTag getEntityTag() {
+            return null;
+        }
+
+        @Override
+        public Date getDate() {
+            return null;
+        }
+
+        @Override
+        public Date getLastModified() {
+            return null;
+        }
+
+        @Override
+        public URI getLocation() {
+            return null;
+        }
+
+        @Override
+        public Set<Link> getLinks() {
+            return Set.of();
+        }
+
+        @Override
+        public boolean hasLink(String relation) {
+            return false;
+        }
+
+        @Override
+        public Link getLink(String relation) {
+            return null;
+        }
+
+        @Override
+        public Link.Builder getLinkBuilder(String relation) {
+            return null;
+        }
+
+        @Override
+        public MultivaluedMap<String, Object> getMetadata() {
+            return headers;
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getStringHeaders() {
+            return new MultivaluedHashMap<>();
+        }
+
+        @Override
+        public String getHeaderString(String name) {
+            return null;
+        }
+    }
+}
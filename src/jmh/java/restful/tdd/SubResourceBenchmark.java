@@ -0,0 +1,74 @@
+package restful.tdd;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.UriInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubResourceBenchmark {
+    private final UriTemplate template = new PathTemplate("/{id}");
+    private final UriTemplate.MatchResult result = template.match("/1/content").get();
+    private final UserApi user = new UserApi();
+
+    @Benchmark
+    public Optional<ResourceRouter.ResourceMethod> metadata_per_request() {
+        return new RootResourceHandler(new ResourceClass(UserApi.class), template, rc -> user)
+                .match(result, "GET", new String[0], null, new Builder());
+    }
+
+    @Benchmark
+    public Optional<ResourceRouter.ResourceMethod> cached_metadata() {
+        return new RootResourceHandler(user, template).match(result, "GET", new String[0], null, new Builder());
+    }
+
+    public static class UserApi {
+        @GET
+        public String get() {
+            return "user";
+        }
+
+        @GET
+        @Path("/content")
+        public String content() {
+            return "content";
+        }
+
+        @Path("/orders")
+        public UserApi orders() {
+            return this;
+        }
+    }
+
+    static class Builder implements UriInfoBuilder {
+        private Object resource;
+
+        @Override
+        public Object getLastMatchedResource() {
+            return resource;
+        }
+
+        @Override
+        public void addMatchedResult(Object resource) {
+            this.resource = resource;
+        }
+
+        @Override
+        public void addMatchedPathParameters(Map<String, String> pathParameters) {
+        }
+
+        @Override
+        public UriInfo createUriInfo() {
+            return null;
+        }
+    }
+}
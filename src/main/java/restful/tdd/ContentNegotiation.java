@@ -0,0 +1,104 @@
+package restful.tdd;
+
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.*;
+
+class ContentNegotiation {
+    static final List<MediaType> ANY = List.of(MediaType.WILDCARD_TYPE);
+
+    private static final String QUALITY = "q";
+    private static final LruCache<String, List<MediaType>> accepts = new LruCache<>(256);
+    private static final LruCache<String, MediaType> contentTypes = new LruCache<>(64);
+
+    static List<MediaType> accept(String[] headers) {
+        if (headers == null || headers.length == 0) return ANY;
+        if (headers.length == 1) return accept(headers[0]);
+        return accept(String.join(",", headers));
+    }
+
+    static List<MediaType> accept(String header) {
+        if (header == null || header.isBlank()) return ANY;
+        List<MediaType> accepted = accepts.get(header);
+        if (accepted == null) {
+            accepted = parseAccept(header);
+            accepts.put(header, accepted);
+        }
+        return accepted;
+    }
+
+    static MediaType contentType(String header) {
+        if (header == null || header.isBlank()) return null;
+        if (header.indexOf(';') >= 0) return parse(header);
+        String key = essence(header);
+        MediaType type = contentTypes.get(key);
+        if (type == null) {
+            type = parse(key);
+            contentTypes.put(key, type);
+        }
+        return type;
+    }
+
+    static String essence(String header) {
+        if (header == null) return null;
+        int parameters = header.indexOf(';');
+        return (parameters < 0 ? header : header.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    static boolean isExcluded(MediaType type, List<MediaType> accept) {
+        MediaType range = null;
+        for (MediaType candidate : accept)
+            if (candidate.isCompatible(type) && (range == null || specificity(candidate) > specificity(range))) range = candidate;
+        return range != null && quality(range) == 0;
+    }
+
+    static MediaType[] parseAll(String[] values) {
+        return Arrays.stream(values).flatMap(v -> Arrays.stream(v.split(","))).filter(v -> !v.isBlank())
+                .map(ContentNegotiation::parse).toArray(MediaType[]::new);
+    }
+
+    static MediaType parse(String value) {
+        String[] parts = value.split(";");
+        String[] type = parts[0].trim().split("/", 2);
+
+        Map<String, String> parameters = new HashMap<>();
+        for (int i = 1; i < parts.length; i++) {
+            String[] parameter = parts[i].split("=", 2);
+            if (parameter.length == 2) parameters.put(parameter[0].trim().toLowerCase(), unquote(parameter[1].trim()));
+        }
+        return new MediaType(type[0].isEmpty() ? MediaType.MEDIA_TYPE_WILDCARD : type[0],
+                type.length < 2 ? MediaType.MEDIA_TYPE_WILDCARD : type[1].trim(), parameters);
+    }
+
+    static double quality(MediaType type) {
+        String quality = type.getParameters().get(QUALITY);
+        if (quality == null) return 1;
+        try {
+            return Double.parseDouble(quality);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    static boolean isConcrete(MediaType type) {
+        return !type.isWildcardType() && !type.isWildcardSubtype();
+    }
+
+    private static List<MediaType> parseAccept(String header) {
+        return Arrays.stream(header.split(",")).filter(v -> !v.isBlank())
+                .map(ContentNegotiation::parse)
+                .sorted(Comparator.comparingDouble(ContentNegotiation::quality).reversed()
+                        .thenComparing(ContentNegotiation::specificity, Comparator.reverseOrder()))
+                .toList();
+    }
+
+    private static int specificity(MediaType type) {
+        if (type.isWildcardType()) return 0;
+        if (type.isWildcardSubtype()) return 1;
+        return 2;
+    }
+
+    private static String unquote(String value) {
+        return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"") ? value.substring(1, value.length() - 1) : value;
+    }
+}
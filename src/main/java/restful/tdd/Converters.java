@@ -0,0 +1,72 @@
+package restful.tdd;
+
+import jakarta.ws.rs.ext.ParamConverter;
+import jakarta.ws.rs.ext.ParamConverterProvider;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+class Converters {
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    static final Converters DEFAULT = new Converters(ServiceLoader.load(ParamConverterProvider.class).stream().map(ServiceLoader.Provider::get).toList());
+
+    private final List<ParamConverterProvider> providers;
+    private final ClassValue<Optional<DefaultResourceMethod.ValueConverter<?>>> converters = new ClassValue<>() {
+        @Override
+        protected Optional<DefaultResourceMethod.ValueConverter<?>> computeValue(Class<?> type) {
+            return PrimitiveConverter.converter(type)
+                    .or(() -> provided(type))
+                    .or(() -> ConverterConstructor.converter(type))
+                    .or(() -> ConverterFactory.converter(type));
+        }
+    };
+
+    Converters(List<ParamConverterProvider> providers) {
+        this.providers = List.copyOf(providers);
+    }
+
+    public Optional<DefaultResourceMethod.ValueConverter<?>> converter(Class<?> type) {
+        return converters.get(type);
+    }
+
+    public Converters with(ParamConverterProvider provider) {
+        return new Converters(Stream.concat(providers.stream(), Stream.of(provider)).toList());
+    }
+
+    private Optional<DefaultResourceMethod.ValueConverter<?>> provided(Class<?> type) {
+        for (ParamConverterProvider provider : providers) {
+            ParamConverter<?> converter = provider.getConverter(type, type, NO_ANNOTATIONS);
+            if (converter != null) return Optional.of(DefaultResourceMethod.ValueConverter.singleValue(value -> {
+                try {
+                    return converter.fromString(value);
+                } catch (RuntimeException e) {
+                    throw RouteSignal.badRequest(e);
+                }
+            }));
+        }
+        return Optional.empty();
+    }
+}
+
+class ConverterHandle {
+    private final Function<Converters, DefaultResourceMethod.ValueConverter<?>> resolver;
+    private volatile Resolved resolved;
+
+    ConverterHandle(Function<Converters, DefaultResourceMethod.ValueConverter<?>> resolver) {
+        this.resolver = resolver;
+    }
+
+    DefaultResourceMethod.ValueConverter<?> get(Converters converters) {
+        Resolved current = resolved;
+        if (current != null && current.converters() == converters) return current.converter();
+        current = new Resolved(converters, resolver.apply(converters));
+        resolved = current;
+        return current.converter();
+    }
+
+    private record Resolved(Converters converters, DefaultResourceMethod.ValueConverter<?> converter) {
+    }
+}
@@ -0,0 +1,12 @@
+package restful.tdd;
+
+public record EncodedHeader(String value) {
+    public static EncodedHeader of(Object value) {
+        return new EncodedHeader(HeaderDelegates.toString(value));
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,36 @@
+package restful.tdd;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public enum ExecutionMode {
+    PLATFORM, VIRTUAL;
+
+    Optional<Executor> executor() {
+        return this == VIRTUAL ? Optional.of(VirtualThreads.executor()) : Optional.empty();
+    }
+}
+
+class VirtualThreads {
+    private static final Executor executor = create();
+
+    static Executor executor() {
+        if (executor == null)
+            throw new IllegalStateException("ExecutionMode.VIRTUAL requires virtual threads (Java 21+), running on Java " + java.lang.Runtime.version());
+        return executor;
+    }
+
+    static boolean isSupported() {
+        return executor != null;
+    }
+
+    private static Executor create() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package restful.tdd;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+
+class HeaderDelegates {
+    private static volatile HeaderDelegates current = new HeaderDelegates(null);
+
+    private final RuntimeDelegate delegate;
+    private final ClassValue<RuntimeDelegate.HeaderDelegate> delegates = new ClassValue<>() {
+        @Override
+        protected RuntimeDelegate.HeaderDelegate computeValue(Class<?> type) {
+            return delegate.createHeaderDelegate(type);
+        }
+    };
+
+    private HeaderDelegates(RuntimeDelegate delegate) {
+        this.delegate = delegate;
+    }
+
+    static String toString(Object value) {
+        String plain = plain(value);
+        return plain != null ? plain : current().render(value);
+    }
+
+    static String plain(Object value) {
+        if (value instanceof String string) return string;
+        if (value instanceof Number number) return number.toString();
+        if (value instanceof EncodedHeader encoded) return encoded.value();
+        return null;
+    }
+
+    static RuntimeDelegate.HeaderDelegate of(Class<?> type) {
+        return current().delegate(type);
+    }
+
+    static HeaderDelegates current() {
+        RuntimeDelegate delegate = RuntimeDelegate.getInstance();
+        HeaderDelegates delegates = current;
+        if (delegates.delegate != delegate) current = delegates = new HeaderDelegates(delegate);
+        return delegates;
+    }
+
+    @SuppressWarnings("unchecked")
+    String render(Object value) {
+        if (value instanceof RenderedMediaType type) return type.render(this);
+        return delegate(value.getClass()).toString(value);
+    }
+
+    RuntimeDelegate.HeaderDelegate delegate(Class<?> type) {
+        return delegates.get(type);
+    }
+}
+
+class RenderedMediaType extends MediaType {
+    private volatile Rendered rendered;
+
+    RenderedMediaType(MediaType type) {
+        super(type.getType(), type.getSubtype(), type.getParameters());
+    }
+
+    @SuppressWarnings("unchecked")
+    String render(HeaderDelegates delegates) {
+        Rendered current = rendered;
+        if (current != null && current.delegates() == delegates) return current.value();
+        String value = delegates.delegate(MediaType.class).toString(this);
+        rendered = new Rendered(delegates, value);
+        return value;
+    }
+
+    private record Rendered(HeaderDelegates delegates, String value) {
+    }
+}
@@ -0,0 +1,188 @@
+package restful.tdd;
+
+import java.lang.invoke.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+
+interface Invoker {
+    Object invoke(Object resource, Object[] arguments) throws InvocationTargetException, IllegalAccessException;
+
+    Mode mode();
+
+    enum Mode {
+        LAMBDA, METHOD_HANDLE, REFLECTION
+    }
+
+    static Invoker of(Method method) {
+        return Invokers.lambda(method).or(() -> Invokers.handle(method)).orElseGet(() -> reflection(method));
+    }
+
+    static Invoker reflection(Method method) {
+        return new Invokers.Reflection(method);
+    }
+}
+
+class Invokers {
+    private static final int MAX_LAMBDA_ARITY = 3;
+    private static final Class<?>[] FUNCTIONS = {Call0.class, Call1.class, Call2.class, Call3.class};
+
+    static Optional<Invoker> lambda(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.isVarArgs() || method.getReturnType() == void.class
+                || method.getParameterCount() > MAX_LAMBDA_ARITY) return Optional.empty();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle target = lookup.unreflect(method);
+            int arity = method.getParameterCount();
+            Class<?> function = FUNCTIONS[arity];
+
+            CallSite site = LambdaMetafactory.metafactory(lookup, "call", MethodType.methodType(function),
+                    MethodType.genericMethodType(arity + 1), target, target.type().wrap());
+            Object call = site.getTarget().invoke();
+
+            return Optional.of(switch (arity) {
+                case 0 -> new Lambda0((Call0) call);
+                case 1 -> new Lambda1((Call1) call);
+                case 2 -> new Lambda2((Call2) call);
+                default -> new Lambda3((Call3) call);
+            });
+        } catch (LambdaConversionException | IllegalAccessException e) {
+            return Optional.empty();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Optional<Invoker> handle(Method method) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers())) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            handle = handle.asType(MethodType.genericMethodType(handle.type().parameterCount()))
+                    .asSpreader(Object[].class, method.getParameterCount());
+            return Optional.of(new Handle(handle));
+        } catch (IllegalAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    interface Call0 {
+        Object call(Object resource);
+    }
+
+    interface Call1 {
+        Object call(Object resource, Object a0);
+    }
+
+    interface Call2 {
+        Object call(Object resource, Object a0, Object a1);
+    }
+
+    interface Call3 {
+        Object call(Object resource, Object a0, Object a1, Object a2);
+    }
+
+    record Lambda0(Call0 call) implements Invoker {
+        @Override
+        public Object invoke(Object resource, Object[] arguments) throws InvocationTargetException {
+            try {
+                return call.call(resource);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public Mode mode() {
+            return Mode.LAMBDA;
+        }
+    }
+
+    record Lambda1(Call1 call) implements Invoker {
+        @Override
+        public Object invoke(Object resource, Object[] arguments) throws InvocationTargetException {
+            try {
+                return call.call(resource, arguments[0]);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public Mode mode() {
+            return Mode.LAMBDA;
+        }
+    }
+
+    record Lambda2(Call2 call) implements Invoker {
+        @Override
+        public Object invoke(Object resource, Object[] arguments) throws InvocationTargetException {
+            try {
+                return call.call(resource, arguments[0], arguments[1]);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public Mode mode() {
+            return Mode.LAMBDA;
+        }
+    }
+
+    record Lambda3(Call3 call) implements Invoker {
+        @Override
+        public Object invoke(Object resource, Object[] arguments) throws InvocationTargetException {
+            try {
+                return call.call(resource, arguments[0], arguments[1], arguments[2]);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public Mode mode() {
+            return Mode.LAMBDA;
+        }
+    }
+
+    record Handle(MethodHandle handle) implements Invoker {
+        @Override
+        public Object invoke(Object resource, Object[] arguments) throws InvocationTargetException {
+            try {
+                return (Object) handle.invokeExact(resource, arguments);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public Mode mode() {
+            return Mode.METHOD_HANDLE;
+        }
+    }
+
+    record Reflection(Method method) implements Invoker {
+        @Override
+        public Object invoke(Object resource, Object[] arguments) throws InvocationTargetException, IllegalAccessException {
+            return method.invoke(resource, arguments);
+        }
+
+        @Override
+        public Mode mode() {
+            return Mode.REFLECTION;
+        }
+    }
+}
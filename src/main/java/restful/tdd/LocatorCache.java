@@ -0,0 +1,102 @@
+package restful.tdd;
+
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+class LocatorCache {
+    private final LruCache<Key, Entry> entries;
+    private final long ttl;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong lastPurge;
+
+    public LocatorCache(Memoized memoized) {
+        this(memoized.maximumSize(), memoized.unit().toNanos(memoized.ttl()), System::nanoTime);
+    }
+
+    LocatorCache(int maximumSize, long ttl, LongSupplier clock) {
+        this.entries = new LruCache<>(maximumSize);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.lastPurge = new AtomicLong(clock.getAsLong());
+    }
+
+    Object locate(MethodInvoker invoker, ResourceContext context, UriInfoBuilder builder, boolean shared) {
+        UriInfo uriInfo = builder.createUriInfo();
+        Object[] arguments = invoker.arguments(context, uriInfo, MethodInvoker.converters(builder));
+        Object target = builder.getLastMatchedResource();
+        Key key = shared ? new Key(target, Arrays.asList(arguments), Map.of())
+                : new Key(target.getClass(), Arrays.asList(arguments), pathParameters(uriInfo));
+        long now = clock.getAsLong();
+
+        Entry entry = entries.get(key);
+        if (entry != null && !isExpired(entry, now)) {
+            hits.increment();
+            return entry.value();
+        }
+        misses.increment();
+
+        Object value = invoker.invoke(builder, arguments);
+        if (value != null) {
+            purge(now);
+            entries.put(key, new Entry(value, now));
+        } else if (entry != null) entries.remove(key);
+        return value;
+    }
+
+    private void purge(long now) {
+        long last = lastPurge.get();
+        if (ttl <= 0 || now - last < ttl || !lastPurge.compareAndSet(last, now)) return;
+        entries.removeIf(entry -> isExpired(entry, now));
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttl > 0 && now - entry.created() >= ttl;
+    }
+
+    private static Map<String, List<String>> pathParameters(UriInfo uriInfo) {
+        MultivaluedMap<String, String> parameters = uriInfo.getPathParameters();
+        if (parameters == null || parameters.isEmpty()) return Map.of();
+        Map<String, List<String>> copy = new HashMap<>();
+        for (Map.Entry<String, List<String>> parameter : parameters.entrySet())
+            copy.put(parameter.getKey(), List.copyOf(parameter.getValue()));
+        return copy;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(Object value, long created) {
+    }
+
+    private record Key(Object scope, List<Object> arguments, Map<String, List<String>> pathParameters) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && scope == key.scope && arguments.equals(key.arguments) && pathParameters.equals(key.pathParameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * System.identityHashCode(scope) + arguments.hashCode()) * 31 + pathParameters.hashCode();
+        }
+    }
+}
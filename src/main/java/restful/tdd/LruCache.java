@@ -0,0 +1,94 @@
+package restful.tdd;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+class LruCache<K, V> {
+    private static final int SEGMENTS = 16;
+    private static final int MINIMUM_SEGMENT_SIZE = 8;
+
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public LruCache(int maximumSize) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("maximum size must be positive: " + maximumSize);
+        int count = Math.min(SEGMENTS, Integer.highestOneBit(Math.max(1, maximumSize / MINIMUM_SEGMENT_SIZE)));
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) segments[i] = new Segment<>(maximumSize / count + (i < maximumSize % count ? 1 : 0));
+    }
+
+    public V get(K key) {
+        V value = segment(key).get(key);
+        if (value == null) misses.increment();
+        else hits.increment();
+        return value;
+    }
+
+    public void put(K key, V value) {
+        segment(key).put(key, value);
+    }
+
+    public void removeIf(Predicate<? super V> predicate) {
+        for (Segment<K, V> segment : segments) segment.removeIf(predicate);
+    }
+
+    public void remove(K key) {
+        segment(key).remove(key);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) size += segment.size();
+        return size;
+    }
+
+    private Segment<K, V> segment(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static class Segment<K, V> {
+        private final LinkedHashMap<K, V> entries;
+
+        Segment(int capacity) {
+            entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized V get(K key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(K key, V value) {
+            entries.put(key, value);
+        }
+
+        synchronized void removeIf(Predicate<? super V> predicate) {
+            entries.values().removeIf(predicate);
+        }
+
+        synchronized void remove(K key) {
+            entries.remove(key);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
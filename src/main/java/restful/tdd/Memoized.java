@@ -0,0 +1,17 @@
+package restful.tdd;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Memoized {
+    int maximumSize() default 1024;
+
+    long ttl() default 60;
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
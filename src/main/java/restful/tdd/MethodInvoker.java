@@ -3,102 +3,317 @@ package restful.tdd;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.AsyncResponse;
 import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.UriInfo;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 
 class MethodInvoker {
+    private static final Object[] NO_ARGUMENTS = new Object[0];
 
-    private static ValueProvider pathParam = (parameter, uriInfo) -> Optional.ofNullable(parameter.getAnnotation(PathParam.class)).map(a -> uriInfo.getPathParameters().get(a.value()));
-    private static ValueProvider queryParam = (parameter, uriInfo) -> Optional.ofNullable(parameter.getAnnotation(QueryParam.class)).map(a -> uriInfo.getQueryParameters().get(a.value()));
-    private static List<ValueProvider> providers = List.of(pathParam, queryParam);
+    private final Invoker invoker;
+    private final ParameterBinder[] binders;
+    private final int suspended;
 
-    static Object invoke(Method method, ResourceContext context, UriInfoBuilder builder) {
-        try {
-            UriInfo uriInfo = builder.createUriInfo();
+    public MethodInvoker(Method method) {
+        this.invoker = Invoker.of(method);
+        this.binders = Arrays.stream(method.getParameters()).map(ParameterBinder::of).toArray(ParameterBinder[]::new);
+        this.suspended = indexOf(Source.SUSPENDED);
+    }
+
+    private int indexOf(Source source) {
+        for (int i = 0; i < binders.length; i++) if (binders[i].source() == source) return i;
+        return -1;
+    }
+
+    boolean isSuspended() {
+        return suspended >= 0;
+    }
+
+    SuspendedResponse suspended(Object[] arguments) {
+        return suspended >= 0 ? (SuspendedResponse) arguments[suspended] : null;
+    }
+
+    Object invoke(ResourceContext context, UriInfoBuilder builder) {
+        return invoke(builder, arguments(context, builder.createUriInfo(), converters(builder)));
+    }
+
+    Object[] arguments(ResourceContext context, UriInfo uriInfo, Converters converters) {
+        Object[] arguments = binders.length == 0 ? NO_ARGUMENTS : new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) arguments[i] = binders[i].bind(context, uriInfo, converters);
+        return arguments;
+    }
+
+    static Converters converters(UriInfoBuilder builder) {
+        Converters converters = builder.getConverters();
+        return converters != null ? converters : Converters.DEFAULT;
+    }
+
+    boolean isBoundByUri() {
+        for (ParameterBinder binder : binders)
+            if (binder.source() != Source.PATH && binder.source() != Source.QUERY) return false;
+        return true;
+    }
 
-            return method.invoke(builder.getLastMatchedResource(), Arrays.stream(method.getParameters())
-                    .map(parameter -> injectParameters(parameter, uriInfo)
-                            .or(() -> injectContext(parameter, context, uriInfo))
-                            .orElse(null)).toArray(Object[]::new));
+    Object invoke(UriInfoBuilder builder, Object[] arguments) {
+        try {
+            return invoker.invoke(builder.getLastMatchedResource(), arguments);
         } catch (InvocationTargetException e) {
             if (e.getCause() instanceof WebApplicationException) throw (WebApplicationException) e.getCause();
+            if (e.getCause() instanceof Error error) throw error;
             throw new RuntimeException(e);
-        }catch (IllegalAccessException  e) {
+        } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private static Optional<Object> injectParameters(Parameter parameter, UriInfo uriInfo) {
-        return providers.stream()
-                .map(provider -> provider.provider(parameter, uriInfo))
-                .filter(Optional::isPresent)
-                .findFirst()
-                .flatMap(values -> values.flatMap(v -> convert(parameter, v)));
+    record ParameterBinder(Source source, String key, Class<?> type, ConverterHandle handle) {
+
+        static ParameterBinder of(Parameter parameter) {
+            Class<?> type = parameter.getType();
+            if (type == AsyncResponse.class || parameter.isAnnotationPresent(Suspended.class))
+                return new ParameterBinder(Source.SUSPENDED, null, type, null);
+            PathParam path = parameter.getAnnotation(PathParam.class);
+            if (path != null) return new ParameterBinder(Source.PATH, path.value(), type, converter(parameter));
+            QueryParam query = parameter.getAnnotation(QueryParam.class);
+            if (query != null) return new ParameterBinder(Source.QUERY, query.value(), type, converter(parameter));
+            return context(type);
+        }
+
+        private static ParameterBinder context(Class<?> type) {
+            if (type.equals(ResourceContext.class) || type.equals(UriInfo.class))
+                return new ParameterBinder(Source.CONTEXT, null, type, null);
+            return new ParameterBinder(Source.RESOURCE, null, type, null);
+        }
+
+        private static ConverterHandle converter(Parameter parameter) {
+            Type parameterized = parameter.getParameterizedType();
+            Class<?> type = parameter.getType();
+            return new ConverterHandle(converters -> CollectionConverter.converter(parameterized, converters)
+                    .or(() -> converters.converter(type))
+                    .orElse(null));
+        }
+
+        DefaultResourceMethod.ValueConverter<?> converter(Converters converters) {
+            return handle == null ? null : handle.get(converters);
+        }
+
+        Object bind(ResourceContext context, UriInfo uriInfo, Converters converters) {
+            return source.bind(this, context, uriInfo, converters);
+        }
+
+        private Object convert(List<String> values, ResourceContext context, UriInfo uriInfo, Converters converters) {
+            DefaultResourceMethod.ValueConverter<?> converter = converter(converters);
+            if (values == null || converter == null) return inject(context, uriInfo);
+            return converter.fromString(values);
+        }
+
+        private Object inject(ResourceContext context, UriInfo uriInfo) {
+            if (type.equals(ResourceContext.class)) return context;
+            if (type.equals(UriInfo.class)) return uriInfo;
+            return context.getResource(type);
+        }
+    }
+
+    enum Source {
+        PATH {
+            @Override
+            Object bind(ParameterBinder binder, ResourceContext context, UriInfo uriInfo, Converters converters) {
+                return binder.convert(uriInfo.getPathParameters().get(binder.key()), context, uriInfo, converters);
+            }
+        },
+        QUERY {
+            @Override
+            Object bind(ParameterBinder binder, ResourceContext context, UriInfo uriInfo, Converters converters) {
+                return binder.convert(uriInfo.getQueryParameters().get(binder.key()), context, uriInfo, converters);
+            }
+        },
+        CONTEXT {
+            @Override
+            Object bind(ParameterBinder binder, ResourceContext context, UriInfo uriInfo, Converters converters) {
+                return binder.type() == UriInfo.class ? uriInfo : context;
+            }
+        },
+        RESOURCE {
+            @Override
+            Object bind(ParameterBinder binder, ResourceContext context, UriInfo uriInfo, Converters converters) {
+                return context.getResource(binder.type());
+            }
+        },
+        SUSPENDED {
+            @Override
+            Object bind(ParameterBinder binder, ResourceContext context, UriInfo uriInfo, Converters converters) {
+                return new SuspendedResponse();
+            }
+        };
+
+        abstract Object bind(ParameterBinder binder, ResourceContext context, UriInfo uriInfo, Converters converters);
     }
+}
+
+class PrimitiveConverter {
+
+    private static Map<Type, DefaultResourceMethod.ValueConverter> primitives = Map.ofEntries(
+            scalar(int.class, s -> Integer.parseInt(integer(s), 0, s.length(), 10)),
+            scalar(Integer.class, s -> Integer.parseInt(integer(s), 0, s.length(), 10)),
+            scalar(long.class, s -> Long.parseLong(integer(s), 0, s.length(), 10)),
+            scalar(Long.class, s -> Long.parseLong(integer(s), 0, s.length(), 10)),
+            scalar(short.class, s -> (short) parseShort(s)),
+            scalar(Short.class, s -> (short) parseShort(s)),
+            scalar(byte.class, s -> (byte) parseByte(s)),
+            scalar(Byte.class, s -> (byte) parseByte(s)),
+            scalar(double.class, s -> Double.parseDouble(s.toString())),
+            scalar(Double.class, s -> Double.parseDouble(s.toString())),
+            scalar(float.class, s -> Float.parseFloat(s.toString())),
+            scalar(Float.class, s -> Float.parseFloat(s.toString())),
+            scalar(boolean.class, PrimitiveConverter::parseBoolean),
+            scalar(Boolean.class, PrimitiveConverter::parseBoolean),
+            scalar(char.class, PrimitiveConverter::parseChar),
+            scalar(Character.class, PrimitiveConverter::parseChar),
+            scalar(String.class, CharSequence::toString));
 
-    private static Optional<Object> injectContext(Parameter parameter, ResourceContext resourceContext, UriInfo uriInfo) {
-        if (parameter.getType().equals(ResourceContext.class)) return Optional.of(resourceContext);
-        if (parameter.getType().equals(UriInfo.class)) return Optional.of(uriInfo);
-        return Optional.of(resourceContext.getResource(parameter.getType()));
+    public static Optional<DefaultResourceMethod.ValueConverter<?>> converter(Class<?> type) {
+        return Optional.ofNullable(primitives.get(type));
     }
 
-    private static Optional<Object> convert(Parameter parameter, List<String> values) {
-        return PrimitiveConverter.converter(parameter, values)
-                .or(() -> ConverterConstructor.convert(parameter.getType(), values.get(0)))
-                .or(() -> ConverterFactory.convert(parameter.getType(), values.get(0)));
+    private static Map.Entry<Type, DefaultResourceMethod.ValueConverter> scalar(Class<?> type, Function<CharSequence, ?> parser) {
+        return Map.entry(type, DefaultResourceMethod.ValueConverter.singleValue(value -> {
+            try {
+                return parser.apply(value);
+            } catch (IllegalArgumentException e) {
+                throw RouteSignal.BAD_REQUEST;
+            }
+        }));
     }
 
-    interface ValueProvider {
-        Optional<List<String>> provider(Parameter parameter, UriInfo uriInfo);
+    private static CharSequence integer(CharSequence value) {
+        int start = value.length() > 1 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (start == value.length()) throw RouteSignal.BAD_REQUEST;
+        for (int i = start; i < value.length(); i++)
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') throw RouteSignal.BAD_REQUEST;
+        return value;
+    }
+
+    private static int parseShort(CharSequence value) {
+        int result = Integer.parseInt(integer(value), 0, value.length(), 10);
+        if (result < Short.MIN_VALUE || result > Short.MAX_VALUE) throw RouteSignal.BAD_REQUEST;
+        return result;
+    }
+
+    private static int parseByte(CharSequence value) {
+        int result = Integer.parseInt(integer(value), 0, value.length(), 10);
+        if (result < Byte.MIN_VALUE || result > Byte.MAX_VALUE) throw RouteSignal.BAD_REQUEST;
+        return result;
+    }
+
+    private static boolean parseBoolean(CharSequence value) {
+        return value.length() == 4 && Character.toLowerCase(value.charAt(0)) == 't' && Character.toLowerCase(value.charAt(1)) == 'r'
+                && Character.toLowerCase(value.charAt(2)) == 'u' && Character.toLowerCase(value.charAt(3)) == 'e';
+    }
+
+    private static char parseChar(CharSequence value) {
+        if (value.length() != 1) throw RouteSignal.BAD_REQUEST;
+        return value.charAt(0);
     }
 }
 
-class PrimitiveConverter {
 
-    private static Map<Type, DefaultResourceMethod.ValueConverter> primitives = Map.of(
-            int.class, DefaultResourceMethod.ValueConverter.singleValue(Integer::parseInt),
-            Double.class, DefaultResourceMethod.ValueConverter.singleValue(Double::parseDouble),
-            short.class, DefaultResourceMethod.ValueConverter.singleValue(Short::parseShort),
-            float.class, DefaultResourceMethod.ValueConverter.singleValue(Float::parseFloat),
-            byte.class, DefaultResourceMethod.ValueConverter.singleValue(Byte::parseByte),
-            boolean.class, DefaultResourceMethod.ValueConverter.singleValue(Boolean::parseBoolean),
-            String.class, DefaultResourceMethod.ValueConverter.singleValue(s -> s));
+class CollectionConverter {
+    private static final Map<Class<?>, IntFunction<? extends Collection<Object>>> collections = Map.of(
+            List.class, ArrayList::new,
+            Collection.class, ArrayList::new,
+            Set.class, size -> new HashSet<>((int) (size / 0.75f) + 1),
+            SortedSet.class, size -> new TreeSet<>());
 
-    public static Optional<Object> converter(Parameter parameter, List<String> values) {
-        return Optional.ofNullable(primitives.get(parameter.getType()))
-                .map(c -> c.fromString(values));
+    public static Optional<DefaultResourceMethod.ValueConverter<?>> converter(Type type, Converters converters) {
+        if (!(type instanceof ParameterizedType parameterized)) return Optional.empty();
+        IntFunction<? extends Collection<Object>> collection = collections.get(parameterized.getRawType());
+        Type element = parameterized.getActualTypeArguments()[0];
+        if (collection == null || !(element instanceof Class<?> elementType)) return Optional.empty();
+        return converters.converter(elementType).map(converter -> DefaultResourceMethod.ValueConverter.multiValue(converter, collection));
     }
 }
 
 
 class ConverterConstructor {
+    private static final ClassValue<Optional<Constructor<?>>> constructors = new ClassValue<>() {
+        @Override
+        protected Optional<Constructor<?>> computeValue(Class<?> type) {
+            return Arrays.stream(type.getConstructors())
+                    .filter(c -> c.getParameterCount() == 1 && c.getParameterTypes()[0] == String.class)
+                    .findFirst();
+        }
+    };
 
     public static Optional<Object> convert(Class<?> converter, String value) {
-        try {
-            return Optional.of(converter.getConstructor(String.class).newInstance(value));
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                 NoSuchMethodException e) {
-            return Optional.empty();
-        }
+        return constructors.get(converter).flatMap(constructor -> {
+            try {
+                return Optional.of(constructor.newInstance(value));
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    public static Optional<DefaultResourceMethod.ValueConverter<?>> converter(Class<?> type) {
+        return constructors.get(type).map(constructor -> DefaultResourceMethod.ValueConverter.singleValue(value -> {
+            try {
+                return constructor.newInstance(value);
+            } catch (InvocationTargetException e) {
+                throw RouteSignal.badRequest(e.getCause());
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }));
     }
 }
 
 class ConverterFactory {
+    private static final List<String> FACTORIES = List.of("valueOf", "fromString");
 
-    public static Optional<Object> convert(Class<?> converter, String value) {
-        try {
-            return Optional.of(converter.getMethod("valueOf", String.class).invoke(null, value));
-        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+    private static final ClassValue<Optional<Method>> factories = new ClassValue<>() {
+        @Override
+        protected Optional<Method> computeValue(Class<?> type) {
+            Method[] methods = type.getMethods();
+            for (String name : FACTORIES)
+                for (Method method : methods)
+                    if (method.getName().equals(name) && Modifier.isStatic(method.getModifiers())
+                            && method.getParameterCount() == 1 && method.getParameterTypes()[0] == String.class)
+                        return Optional.of(method);
             return Optional.empty();
         }
+    };
+
+    public static Optional<Object> convert(Class<?> converter, String value) {
+        return factories.get(converter).flatMap(factory -> {
+            try {
+                return Optional.ofNullable(factory.invoke(null, value));
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    public static Optional<DefaultResourceMethod.ValueConverter<?>> converter(Class<?> type) {
+        return factories.get(type).map(factory -> DefaultResourceMethod.ValueConverter.singleValue(value -> {
+            try {
+                return factory.invoke(null, value);
+            } catch (InvocationTargetException e) {
+                throw RouteSignal.badRequest(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }));
     }
 }
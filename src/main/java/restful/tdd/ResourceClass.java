@@ -0,0 +1,40 @@
+package restful.tdd;
+
+import java.lang.reflect.Method;
+
+class ResourceClass {
+    private static final ClassValue<ResourceClass> classes = new ClassValue<>() {
+        @Override
+        protected ResourceClass computeValue(Class<?> type) {
+            return new ResourceClass(type);
+        }
+    };
+
+    private final ResourceMethods resourceMethods;
+    private final SubResourceLocators subResourceLocators;
+    private final long scanTime;
+
+    ResourceClass(Class<?> resourceClass) {
+        long start = System.nanoTime();
+        Method[] methods = resourceClass.getMethods();
+        this.resourceMethods = new ResourceMethods(methods);
+        this.subResourceLocators = new SubResourceLocators(methods);
+        this.scanTime = System.nanoTime() - start;
+    }
+
+    public static ResourceClass of(Class<?> resourceClass) {
+        return classes.get(resourceClass);
+    }
+
+    public ResourceMethods getResourceMethods() {
+        return resourceMethods;
+    }
+
+    public SubResourceLocators getSubResourceLocators() {
+        return subResourceLocators;
+    }
+
+    public long getScanTime() {
+        return scanTime;
+    }
+}
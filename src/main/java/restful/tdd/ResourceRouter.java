@@ -5,15 +5,22 @@ import jakarta.ws.rs.*;
 import jakarta.ws.rs.container.ResourceContext;
 import jakarta.ws.rs.core.GenericEntity;
 import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.BaseStream;
 import java.util.stream.Collectors;
 
 interface ResourceRouter {
@@ -27,90 +34,271 @@ interface ResourceRouter {
         GenericEntity<?> call(ResourceContext context, UriInfoBuilder builder);
 
         String getHttpMethod();
+
+        default MediaType getMediaType() {
+            return null;
+        }
     }
 }
 
 class DefaultResourceRouter implements ResourceRouter {
 
+    private static final String[] NO_ACCEPT = new String[0];
+
     private Runtime runtime;
-    private List<Resource> resources;
+    private volatile RouteTable table;
+    private final List<Consumer<RouteTable>> reloadListeners = new CopyOnWriteArrayList<>();
 
     public DefaultResourceRouter(Runtime runtime, List<Resource> resources) {
+        this(runtime, resources, null);
+    }
+
+    public DefaultResourceRouter(Runtime runtime, List<Resource> resources, RouteCache cache) {
         this.runtime = runtime;
-        this.resources = resources;
+        this.table = new RouteTable(resources, cache);
+    }
+
+    public RouteTable getRouteTable() {
+        return table;
+    }
+
+    public void reload(List<Resource> resources) {
+        reload(table.with(resources));
+    }
+
+    public void reload(RouteTable table) {
+        reloadListeners.forEach(listener -> listener.accept(table));
+        this.table = table;
+    }
+
+    void onReload(Consumer<RouteTable> listener) {
+        reloadListeners.add(listener);
     }
 
     @Override
     public OutboundResponse dispatch(HttpServletRequest request, ResourceContext resourceContext) {
         String path = request.getServletPath();
         UriInfoBuilder uri = runtime.createUriInfoBuilder(request);
+        RouteTable table = this.table;
+
+        try {
+            String[] mediaTypes = mediaTypes(request);
+            Optional<ResourceMethod> method = table.getCache() == null
+                    ? UriHandlers.mapMatched(path, table.getRoutes(), (result, resource) -> findResourceMethod(request, mediaTypes, resourceContext, uri, result, resource))
+                    : findCachedResourceMethod(request, mediaTypes, resourceContext, uri, path, table);
 
-        List<Resource> resources_ = resources;
-        Optional<ResourceMethod> method = UriHandlers.mapMatched(path, resources_, (result, resource) -> findResourceMethod(request, resourceContext, uri, result, resource));
+            if (method.isEmpty()) {
+                return RouteSignal.NOT_FOUND.toResponse();
+            }
 
-        if (method.isEmpty()) {
-            return (OutboundResponse) Response.status(Response.Status.NOT_FOUND).build();
+            return (OutboundResponse) method.map(m -> m.call(resourceContext, uri)).map(entity -> {
+                if (entity.getEntity() instanceof OutboundResponse) return (OutboundResponse) entity.getEntity();
+                MediaType type = method.get().getMediaType();
+                return type != null ? Response.ok(entity, type).build() : Response.ok(entity).build();
+            }).orElseGet(() -> StatusResponse.of(Response.Status.NO_CONTENT));
+        } catch (RouteSignal signal) {
+            return signal.toResponse();
         }
+    }
 
-        return (OutboundResponse) method.map(m -> m.call(resourceContext, uri)).map(entity -> {
-            return (entity.getEntity() instanceof OutboundResponse) ? (OutboundResponse) entity.getEntity() : Response.ok(entity).build();
-        }).orElseGet(() -> Response.noContent().build());
+    private static Optional<ResourceMethod> findResourceMethod(HttpServletRequest request, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder uri, Optional<UriTemplate.MatchResult> matched, Resource handler) {
+        if (handler instanceof RootResourceHandler root)
+            return root.match(matched.get(), request.getMethod(), request.getContentType(), mediaTypes, resourceContext, uri, null);
+        return handler.match(matched.get(), request.getMethod(), mediaTypes, resourceContext, uri);
     }
 
-    private static Optional<ResourceMethod> findResourceMethod(HttpServletRequest request, ResourceContext resourceContext, UriInfoBuilder uri, Optional<UriTemplate.MatchResult> matched, Resource handler) {
-        return handler.match(matched.get(), request.getMethod(), Collections.list(request.getHeaders(HttpHeaders.ACCEPT)).toArray(String[]::new), resourceContext, uri);
+    private static Optional<ResourceMethod> findCachedResourceMethod(HttpServletRequest request, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder uri, String path, RouteTable table) {
+        RouteCache cache = table.getCache();
+        String httpMethod = request.getMethod();
+        String contentType = request.getContentType();
+        Optional<RouteCache.Route> route = cache.get(httpMethod, path, contentType, mediaTypes);
+        if (route.isPresent()) return route.get().root().replay(route.get(), httpMethod, contentType, mediaTypes, resourceContext, uri);
+
+        RouteCache.Recorder recorder = cache.recorder();
+        Optional<ResourceMethod> method = UriHandlers.mapMatched(path, table.getRoutes(), (result, resource) -> {
+            if (!(resource instanceof RootResourceHandler root)) return findResourceMethod(request, mediaTypes, resourceContext, uri, result, resource);
+            Optional<ResourceMethod> found = root.match(result.get(), httpMethod, contentType, mediaTypes, resourceContext, uri, recorder);
+            if (found.isPresent()) recorder.root(root, result.get());
+            return found;
+        });
+        recorder.route().ifPresent(r -> cache.put(httpMethod, path, contentType, mediaTypes, r));
+        return method;
+    }
+
+    static String[] mediaTypes(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) return NO_ACCEPT;
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT);
+        if (headers == null) return new String[]{accept};
+        headers.nextElement();
+        if (!headers.hasMoreElements()) return new String[]{accept};
+        List<String> all = new ArrayList<>(2);
+        all.add(accept);
+        while (headers.hasMoreElements()) all.add(headers.nextElement());
+        return all.toArray(String[]::new);
     }
 
 }
 
 class ResourceMethods {
-    private Map<String, List<ResourceRouter.ResourceMethod>> resourceMethods;
+    private static final List<String> ALLOWED_METHODS = List.of(HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.HEAD, HttpMethod.DELETE, HttpMethod.PATCH, HttpMethod.OPTIONS);
+
+    private RouteTree<ResourceMethodGroup>[] resourceMethods;
+    private RouteTree<ResourceMethodGroup> heads;
+    private Map<String, RouteTree<ResourceMethodGroup>> customMethods = new HashMap<>();
+    private static final OptionResourceMethod[] MERGED_OPTIONS = mergedOptions();
+    private static final OptionResourceMethod NO_METHODS = MERGED_OPTIONS[0];
+
+    private RouteTree<Option> options;
+    private List<WriterCache.Binding> writerBindings;
+
+    enum Verb {
+        GET, POST, PUT, DELETE, PATCH, HEAD, OPTIONS;
+
+        static Verb of(String method) {
+            return switch (method) {
+                case HttpMethod.GET -> GET;
+                case HttpMethod.POST -> POST;
+                case HttpMethod.PUT -> PUT;
+                case HttpMethod.DELETE -> DELETE;
+                case HttpMethod.PATCH -> PATCH;
+                case HttpMethod.HEAD -> HEAD;
+                case HttpMethod.OPTIONS -> OPTIONS;
+                default -> null;
+            };
+        }
+    }
 
+    @SuppressWarnings("unchecked")
     public ResourceMethods(Method[] methods) {
-        this.resourceMethods = getResourceMethods(methods);
+        Map<String, List<ResourceMethodGroup>> groups = getResourceMethods(methods);
+
+        this.resourceMethods = new RouteTree[Verb.values().length];
+        groups.forEach((method, group) -> {
+            Verb verb = Verb.of(method);
+            if (verb != null) resourceMethods[verb.ordinal()] = new RouteTree<>(group);
+            else customMethods.put(method, new RouteTree<>(group));
+        });
+        this.heads = Optional.ofNullable(groups.get(HttpMethod.GET))
+                .map(group -> new RouteTree<>(group.stream().map(ResourceMethodGroup::head).toList()))
+                .orElse(null);
+        this.options = getOptions(methods);
+        this.writerBindings = WriterCache.bindings(methods);
     }
 
-    private static Map<String, List<ResourceRouter.ResourceMethod>> getResourceMethods(Method[] methods) {
+    List<WriterCache.Binding> getWriterBindings() {
+        return writerBindings;
+    }
+
+    private static Map<String, List<ResourceMethodGroup>> getResourceMethods(Method[] methods) {
         return Arrays.stream(methods)
                 .filter(m -> Arrays.stream(m.getAnnotations()).anyMatch(a -> a.annotationType().isAnnotationPresent(HttpMethod.class)))
-                .map(DefaultResourceMethod::new)
-                .collect(Collectors.groupingBy(ResourceRouter.ResourceMethod::getHttpMethod));
+                .collect(Collectors.groupingBy(m -> DefaultResourceMethod.getHttpMethod(m),
+                        Collectors.collectingAndThen(Collectors.groupingBy(ResourceMethods::getPath, LinkedHashMap::new, Collectors.toList()),
+                                groups -> groups.values().stream().map(ResourceMethodGroup::new).toList())));
+    }
+
+    private static RouteTree<Option> getOptions(Method[] methods) {
+        return new RouteTree<>(Arrays.stream(methods)
+                .filter(m -> Arrays.stream(m.getAnnotations()).anyMatch(a -> a.annotationType().isAnnotationPresent(HttpMethod.class)))
+                .collect(Collectors.groupingBy(ResourceMethods::getPath, LinkedHashMap::new,
+                        Collectors.mapping(m -> DefaultResourceMethod.getHttpMethod(m), Collectors.toSet())))
+                .entrySet().stream()
+                .map(e -> new Option(PathTemplate.of(e.getKey()), mask(allowed(e.getValue()))))
+                .toList(), false);
+    }
+
+    private static OptionResourceMethod[] mergedOptions() {
+        OptionResourceMethod[] merged = new OptionResourceMethod[1 << ALLOWED_METHODS.size()];
+        for (int mask = 0; mask < merged.length; mask++) {
+            Set<String> methods = new HashSet<>();
+            for (int i = 0; i < ALLOWED_METHODS.size(); i++)
+                if ((mask & 1 << i) != 0) methods.add(ALLOWED_METHODS.get(i));
+            merged[mask] = new OptionResourceMethod(allowed(methods));
+        }
+        return merged;
+    }
+
+    private static int mask(Set<String> allowed) {
+        int mask = 0;
+        for (int i = 0; i < ALLOWED_METHODS.size(); i++)
+            if (allowed.contains(ALLOWED_METHODS.get(i))) mask |= 1 << i;
+        return mask;
+    }
+
+    private static Set<String> allowed(Set<String> methods) {
+        Set<String> allowed = ALLOWED_METHODS.stream().filter(methods::contains).collect(Collectors.toSet());
+
+        allowed.add(HttpMethod.OPTIONS);
+        if (allowed.contains(HttpMethod.GET)) allowed.add(HttpMethod.HEAD);
+
+        return Set.copyOf(allowed);
+    }
+
+    private static String getPath(Method method) {
+        return Optional.ofNullable(method.getAnnotation(Path.class)).map(Path::value).orElse("");
     }
 
     public Optional<ResourceRouter.ResourceMethod> findResourceMethods(String path, String method) {
-        return findMethod(path, method).or(() -> findAlternative(path, method));
+        return findResourceMethods(path, method, null, ContentNegotiation.ANY);
     }
 
-    private Optional<ResourceRouter.ResourceMethod> findAlternative(String path, String method) {
-        if (HttpMethod.HEAD.equals(method)) return findMethod(path, HttpMethod.GET).map(HeadResourceMethod::new);
-        if (HttpMethod.OPTIONS.equals(method)) return Optional.of(new OptionResourceMethod(path));
-        return Optional.empty();
+    public Optional<ResourceRouter.ResourceMethod> findResourceMethods(String path, String method, MediaType contentType, List<MediaType> accept) {
+        Verb verb = Verb.of(method);
+        if (verb == null) return findMethod(path, customMethods.get(method), contentType, accept);
+
+        Optional<ResourceRouter.ResourceMethod> found = findMethod(path, resourceMethods[verb.ordinal()], contentType, accept);
+        if (found.isPresent()) return found;
+        return switch (verb) {
+            case HEAD -> findMethod(path, heads, contentType, accept);
+            case OPTIONS -> Optional.of(findOptions(path));
+            default -> Optional.empty();
+        };
     }
 
-    private Optional<ResourceRouter.ResourceMethod> findMethod(String path, String method) {
-        return Optional.ofNullable(resourceMethods.get(method)).flatMap(methods -> UriHandlers.match(path, methods, r -> r.getRemaining() == null));
+    private static Optional<ResourceRouter.ResourceMethod> findMethod(String path, RouteTree<ResourceMethodGroup> groups, MediaType contentType, List<MediaType> accept) {
+        if (groups == null) return Optional.empty();
+        return UriHandlers.match(path, groups, r -> r.getRemaining() == null).map(group -> group.select(contentType, accept));
     }
 
-    class OptionResourceMethod implements ResourceRouter.ResourceMethod {
+    public Optional<RouteSignal> findNotAllowed(String path) {
+        OptionResourceMethod options = findOptions(path);
+        return options == NO_METHODS ? Optional.empty() : Optional.of(options.notAllowed);
+    }
 
-        private String path;
+    private OptionResourceMethod findOptions(String path) {
+        int mask = 0;
+        for (Option option : options.candidates(path))
+            if (option.matches(path)) mask |= option.mask();
+        return MERGED_OPTIONS[mask];
+    }
 
-        public OptionResourceMethod(String path) {
-            this.path = path;
+    record Option(UriTemplate template, int mask) implements UriHandler {
+        @Override
+        public UriTemplate getUriTemplate() {
+            return template;
         }
 
-        @Override
-        public GenericEntity<?> call(ResourceContext context, UriInfoBuilder builder) {
-            return new GenericEntity<>(Response.noContent().allow(findAllowedMethods()).build(), Response.class);
+        boolean matches(String path) {
+            return template.match(path).map(r -> r.getRemaining() == null).orElse(false);
         }
+    }
 
-        private Set<String> findAllowedMethods() {
-            Set<String> allowed = List.of(HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.HEAD, HttpMethod.DELETE, HttpMethod.PATCH, HttpMethod.OPTIONS).stream().filter(m -> findMethod(path, m).isPresent()).collect(Collectors.toSet());
+    static class OptionResourceMethod implements ResourceRouter.ResourceMethod {
 
-            allowed.add(HttpMethod.OPTIONS);
-            if (allowed.contains(HttpMethod.GET)) allowed.add(HttpMethod.HEAD);
+        private final Set<String> allowed;
+        private final RouteSignal notAllowed;
+        private final GenericEntity<?> response;
+
+        public OptionResourceMethod(Set<String> allowed) {
+            this.allowed = allowed;
+            this.notAllowed = RouteSignal.methodNotAllowed(allowed);
+            this.response = new GenericEntity<>(StatusResponse.of(Response.Status.NO_CONTENT, allowed), Response.class);
+        }
 
-            return allowed;
+        @Override
+        public GenericEntity<?> call(ResourceContext context, UriInfoBuilder builder) {
+            return response;
         }
 
         @Override
@@ -126,23 +314,142 @@ class ResourceMethods {
 }
 
 
+class ResourceMethodGroup implements UriHandler {
+    private static final MediaType[] ANY = {MediaType.WILDCARD_TYPE};
+
+    private final ResourceRouter.ResourceMethod[] methods;
+    private final MediaType[][] consumes;
+    private final MediaType[][] produces;
+    private final ResourceRouter.ResourceMethod[][] negotiated;
+    private final boolean negotiable;
+
+    public ResourceMethodGroup(List<Method> methods) {
+        this.methods = methods.stream().map(DefaultResourceMethod::new).toArray(ResourceRouter.ResourceMethod[]::new);
+        this.consumes = methods.stream().map(m -> mediaTypes(m, Consumes.class, Consumes::value)).toArray(MediaType[][]::new);
+        this.produces = methods.stream().map(m -> mediaTypes(m, Produces.class, Produces::value)).toArray(MediaType[][]::new);
+        this.negotiated = new ResourceRouter.ResourceMethod[this.methods.length][];
+        for (int i = 0; i < this.methods.length; i++) {
+            negotiated[i] = new ResourceRouter.ResourceMethod[produces[i].length];
+            for (int j = 0; j < produces[i].length; j++)
+                negotiated[i][j] = ContentNegotiation.isConcrete(produces[i][j]) ? new NegotiatedResourceMethod(this.methods[i], new RenderedMediaType(produces[i][j])) : this.methods[i];
+        }
+        this.negotiable = this.methods.length > 1 || consumes[0] != ANY || produces[0] != ANY;
+    }
+
+    private ResourceMethodGroup(ResourceMethodGroup group, Function<ResourceRouter.ResourceMethod, ResourceRouter.ResourceMethod> wrapper) {
+        this.methods = Arrays.stream(group.methods).map(wrapper).toArray(ResourceRouter.ResourceMethod[]::new);
+        this.consumes = group.consumes;
+        this.produces = group.produces;
+        this.negotiated = Arrays.stream(group.negotiated)
+                .map(methods -> Arrays.stream(methods).map(wrapper).toArray(ResourceRouter.ResourceMethod[]::new))
+                .toArray(ResourceRouter.ResourceMethod[][]::new);
+        this.negotiable = group.negotiable;
+    }
+
+    static MediaType[] produces(Method method) {
+        return mediaTypes(method, Produces.class, Produces::value);
+    }
+
+    ResourceMethodGroup head() {
+        return new ResourceMethodGroup(this, HeadResourceMethod::new);
+    }
+
+    private static <A extends Annotation> MediaType[] mediaTypes(Method method, Class<A> annotation, Function<A, String[]> values) {
+        return Optional.ofNullable(method.getAnnotation(annotation))
+                .or(() -> Optional.ofNullable(method.getDeclaringClass().getAnnotation(annotation)))
+                .map(a -> ContentNegotiation.parseAll(values.apply(a)))
+                .filter(types -> types.length > 0)
+                .orElse(ANY);
+    }
+
+    ResourceRouter.ResourceMethod select(MediaType contentType, List<MediaType> accept) {
+        if (!negotiable) return methods[0];
+        if (contentType != null && Arrays.stream(consumes).noneMatch(types -> compatible(types, contentType)))
+            throw new NotSupportedException();
+
+        boolean exclusions = !accept.isEmpty() && ContentNegotiation.quality(accept.get(accept.size() - 1)) == 0;
+        for (MediaType accepted : accept) {
+            if (exclusions && ContentNegotiation.quality(accepted) == 0) break;
+            for (int i = 0; i < methods.length; i++) {
+                if (contentType != null && !compatible(consumes[i], contentType)) continue;
+                for (int j = 0; j < produces[i].length; j++)
+                    if (accepted.isCompatible(produces[i][j]) && !(exclusions && excluded(negotiated[i][j], accept)))
+                        return negotiated[i][j];
+            }
+        }
+        throw new NotAcceptableException();
+    }
+
+    private static boolean excluded(ResourceRouter.ResourceMethod method, List<MediaType> accept) {
+        return method instanceof NegotiatedResourceMethod negotiated && ContentNegotiation.isExcluded(negotiated.mediaType(), accept);
+    }
+
+    private static boolean compatible(MediaType[] types, MediaType type) {
+        for (MediaType candidate : types) if (candidate.isCompatible(type)) return true;
+        return false;
+    }
+
+    @Override
+    public UriTemplate getUriTemplate() {
+        return methods[0].getUriTemplate();
+    }
+}
+
+record NegotiatedResourceMethod(ResourceRouter.ResourceMethod method, MediaType mediaType) implements ResourceRouter.ResourceMethod {
+    @Override
+    public GenericEntity<?> call(ResourceContext context, UriInfoBuilder builder) {
+        return method.call(context, builder);
+    }
+
+    @Override
+    public String getHttpMethod() {
+        return method.getHttpMethod();
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    @Override
+    public UriTemplate getUriTemplate() {
+        return method.getUriTemplate();
+    }
+
+    @Override
+    public String toString() {
+        return method.toString();
+    }
+}
+
 class DefaultResourceMethod implements ResourceRouter.ResourceMethod {
 
     private String httpMethod;
     private UriTemplate uriTemplate;
     private Method method;
+    private MethodInvoker invoker;
 
     public DefaultResourceMethod(Method method) {
         this.method = method;
-        this.uriTemplate = new PathTemplate(Optional.ofNullable(method.getAnnotation(Path.class)).map(a -> a.value()).orElse(""));
-        this.httpMethod = Arrays.stream(method.getAnnotations())
+        this.invoker = new MethodInvoker(method);
+        this.uriTemplate = PathTemplate.of(Optional.ofNullable(method.getAnnotation(Path.class)).map(a -> a.value()).orElse(""));
+        this.httpMethod = getHttpMethod(method);
+    }
+
+    static String getHttpMethod(Method method) {
+        return Arrays.stream(method.getAnnotations())
                 .filter(a -> a.annotationType().isAnnotationPresent(HttpMethod.class))
                 .findFirst().get().annotationType().getAnnotation(HttpMethod.class).value();
     }
 
     @Override
     public GenericEntity<?> call(ResourceContext context, UriInfoBuilder builder) {
-        Object result = MethodInvoker.invoke(method, context, builder);
+        if (invoker.isSuspended()) {
+            Object[] arguments = invoker.arguments(context, builder.createUriInfo(), MethodInvoker.converters(builder));
+            invoker.invoke(builder, arguments);
+            return new GenericEntity<>(invoker.suspended(arguments).stage(), CompletionStage.class);
+        }
+        Object result = invoker.invoke(context, builder);
         return result != null ? new GenericEntity<>(result, method.getGenericReturnType()) : null;
     }
 
@@ -150,8 +457,24 @@ class DefaultResourceMethod implements ResourceRouter.ResourceMethod {
     interface ValueConverter<T> {
         T fromString(List<String> value);
 
-        static <T> ValueConverter<T> singleValue(Function<String, T> converter) {
-            return values -> converter.apply(values.get(0));
+        static <T> ValueConverter<T> singleValue(Function<? super String, T> converter) {
+            return new SingleValue<>(converter);
+        }
+
+        static <C extends Collection<Object>> ValueConverter<C> multiValue(ValueConverter<?> element, IntFunction<C> collection) {
+            Function<? super String, ?> converter = ((SingleValue<?>) element).converter();
+            return values -> {
+                C result = collection.apply(values.size());
+                for (int i = 0; i < values.size(); i++) result.add(converter.apply(values.get(i)));
+                return result;
+            };
+        }
+    }
+
+    record SingleValue<T>(Function<? super String, T> converter) implements ValueConverter<T> {
+        @Override
+        public T fromString(List<String> values) {
+            return converter.apply(values.get(0));
         }
     }
 
@@ -176,27 +499,39 @@ class DefaultResourceMethod implements ResourceRouter.ResourceMethod {
 
 
 class SubResourceLocators {
-    private final List<ResourceRouter.Resource> resources;
+    private final RouteTree<SubResourceLocator> resources;
 
     public SubResourceLocators(Method[] methods) {
-        resources = Arrays.stream(methods).filter(m -> {
+        resources = new RouteTree<>(Arrays.stream(methods).filter(m -> {
                     return m.isAnnotationPresent(Path.class) && Arrays.stream(m.getAnnotations()).noneMatch(a -> a.annotationType().isAnnotationPresent(HttpMethod.class));
                 })
-                .map((Function<Method, ResourceRouter.Resource>) SubResourceLocator::new)
-                .toList();
+                .map(SubResourceLocator::new)
+                .toList());
     }
 
     public Optional<ResourceRouter.ResourceMethod> findSubResourceMethods(String path, String method, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder) {
-        return UriHandlers.mapMatched(path, resources, (result, locator) -> locator.match(result.get(), method, mediaTypes, resourceContext, builder));
+        return findSubResourceMethods(path, method, null, mediaTypes, resourceContext, builder, false, null);
+    }
+
+    Optional<ResourceRouter.ResourceMethod> findSubResourceMethods(String path, String method, String contentType, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder, boolean shared, RouteCache.Recorder recorder) {
+        return UriHandlers.mapMatched(path, resources, (result, locator) -> locator.match(result.get(), method, contentType, mediaTypes, resourceContext, builder, shared, recorder));
     }
 
     static class SubResourceLocator implements ResourceRouter.Resource {
         private PathTemplate uriTemplate;
         private Method method;
+        private MethodInvoker invoker;
+        private LocatorCache cache;
 
         public SubResourceLocator(Method method) {
             this.method = method;
-            this.uriTemplate = new PathTemplate(method.getAnnotation(Path.class).value());
+            this.invoker = new MethodInvoker(method);
+            this.uriTemplate = PathTemplate.of(method.getAnnotation(Path.class).value());
+            this.cache = Optional.ofNullable(method.getAnnotation(Memoized.class)).map(memoized -> {
+                if (!invoker.isBoundByUri())
+                    throw new IllegalArgumentException("@Memoized locator " + this + " may only take @PathParam or @QueryParam arguments");
+                return new LocatorCache(memoized);
+            }).orElse(null);
         }
 
         @Override
@@ -204,6 +539,14 @@ class SubResourceLocators {
             return uriTemplate;
         }
 
+        public Method getMethod() {
+            return method;
+        }
+
+        public Optional<LocatorCache> getCache() {
+            return Optional.ofNullable(cache);
+        }
+
         @Override
         public String toString() {
             return method.getDeclaringClass().getSimpleName() + "." + method.getName();
@@ -211,11 +554,35 @@ class SubResourceLocators {
 
         @Override
         public Optional<ResourceRouter.ResourceMethod> match(UriTemplate.MatchResult result, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder) {
+            return match(result, httpMethod, null, mediaTypes, resourceContext, builder, false, null);
+        }
+
+        Optional<ResourceRouter.ResourceMethod> match(UriTemplate.MatchResult result, String httpMethod, String contentType, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder, boolean shared, RouteCache.Recorder recorder) {
+            Object subResource = locate(result, resourceContext, builder, shared);
+            if (subResource == null) return Optional.empty();
+            Optional<ResourceRouter.ResourceMethod> method = match(subResource, result, httpMethod, contentType, mediaTypes, resourceContext, builder, recorder);
+            if (recorder != null && method.isPresent()) recorder.hop(this, result, subResource.getClass());
+            return method;
+        }
+
+        Object locate(UriTemplate.MatchResult result, ResourceContext resourceContext, UriInfoBuilder builder, boolean shared) {
             try {
                 builder.addMatchedPathParameters(result.getMatchedPathParameters());
-                Object subResource = MethodInvoker.invoke(method, resourceContext, builder);
-                return new RootResourceHandler(subResource, uriTemplate).match(excludePathParameters(result), httpMethod, mediaTypes, resourceContext, builder);
-            } catch(WebApplicationException e) {
+                return cache == null ? invoker.invoke(resourceContext, builder) : cache.locate(invoker, resourceContext, builder, shared);
+            } catch(WebApplicationException | RouteSignal e) {
+                throw e;
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        Optional<ResourceRouter.ResourceMethod> match(Object subResource, UriTemplate.MatchResult result, String httpMethod, String contentType, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder, RouteCache.Recorder recorder) {
+            if (subResource == null) return Optional.empty();
+            try {
+                return new RootResourceHandler(ResourceClass.of(subResource.getClass()), uriTemplate, rc -> subResource, cache != null)
+                        .match(excludePathParameters(result), httpMethod, contentType, mediaTypes, resourceContext, builder, recorder);
+            } catch(WebApplicationException | RouteSignal e) {
                 throw e;
             }
             catch (Exception e) {
@@ -258,7 +625,8 @@ class HeadResourceMethod implements ResourceRouter.ResourceMethod {
 
     @Override
     public GenericEntity<?> call(ResourceContext context, UriInfoBuilder builder) {
-        method.call(context, builder);
+        GenericEntity<?> entity = method.call(context, builder);
+        if (entity != null && entity.getEntity() instanceof BaseStream<?, ?> stream) stream.close();
         return null;
     }
 
@@ -267,6 +635,11 @@ class HeadResourceMethod implements ResourceRouter.ResourceMethod {
         return HttpMethod.HEAD;
     }
 
+    @Override
+    public MediaType getMediaType() {
+        return method.getMediaType();
+    }
+
     @Override
     public UriTemplate getUriTemplate() {
         return this.method.getUriTemplate();
@@ -284,36 +657,75 @@ class RootResourceHandler implements ResourceRouter.Resource {
     private UriTemplate uriTemplate;
     private ResourceMethods resourceMethods;
     private Function<ResourceContext, Object> resource;
+    private boolean shared;
 
     public RootResourceHandler(Class<?> resourceClass) {
-        this(resourceClass, new PathTemplate(getTemplate(resourceClass)), rc -> rc.getResource(resourceClass));
+        this(ResourceClass.of(resourceClass), PathTemplate.of(getTemplate(resourceClass)), rc -> rc.getResource(resourceClass), false);
     }
 
-    private static String getTemplate(Class<?> resourceClass) {
+    static String getTemplate(Class<?> resourceClass) {
         if (!resourceClass.isAnnotationPresent(Path.class)) throw new IllegalArgumentException();
         return resourceClass.getAnnotation(Path.class).value();
     }
 
     public RootResourceHandler(Object resource, UriTemplate uriTemplate) {
-        this(resource.getClass(), uriTemplate, rc -> resource);
+        this(ResourceClass.of(resource.getClass()), uriTemplate, rc -> resource, true);
     }
 
 
-    private RootResourceHandler(Class<?> resourceClass, UriTemplate uriTemplate, Function<ResourceContext, Object> resource) {
+    RootResourceHandler(ResourceClass resourceClass, UriTemplate uriTemplate, Function<ResourceContext, Object> resource) {
+        this(resourceClass, uriTemplate, resource, false);
+    }
+
+    RootResourceHandler(ResourceClass resourceClass, UriTemplate uriTemplate, Function<ResourceContext, Object> resource, boolean shared) {
         this.uriTemplate = uriTemplate;
-        this.resourceMethods = new ResourceMethods(resourceClass.getMethods());
-        this.subResourceLocators = new SubResourceLocators(resourceClass.getMethods());
+        this.resourceMethods = resourceClass.getResourceMethods();
+        this.subResourceLocators = resourceClass.getSubResourceLocators();
         this.resource = resource;
+        this.shared = shared;
     }
 
     @Override
     public Optional<ResourceRouter.ResourceMethod> match(UriTemplate.MatchResult result, String httpMethod, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder) {
+        return match(result, httpMethod, null, mediaTypes, resourceContext, builder, null);
+    }
+
+    Optional<ResourceRouter.ResourceMethod> match(UriTemplate.MatchResult result, String httpMethod, String contentType, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder, RouteCache.Recorder recorder) {
         builder.addMatchedResult(resource.apply(resourceContext));
         builder.addMatchedPathParameters(result.getMatchedPathParameters());
 
         String remaining = Optional.ofNullable(result.getRemaining()).orElse("");
-        return resourceMethods.findResourceMethods(remaining, httpMethod)
-                .or(() -> subResourceLocators.findSubResourceMethods(remaining, httpMethod, mediaTypes, resourceContext, builder));
+        Optional<ResourceRouter.ResourceMethod> method = resourceMethods.findResourceMethods(remaining, httpMethod,
+                ContentNegotiation.contentType(contentType), ContentNegotiation.accept(mediaTypes));
+        if (method.isPresent()) {
+            if (recorder != null) recorder.method(method.get());
+            return method;
+        }
+        Optional<ResourceRouter.ResourceMethod> located = subResourceLocators.findSubResourceMethods(remaining, httpMethod, contentType, mediaTypes, resourceContext, builder, shared, recorder);
+        if (located.isEmpty()) resourceMethods.findNotAllowed(remaining).ifPresent(signal -> {
+            throw signal;
+        });
+        return located;
+    }
+
+    Optional<ResourceRouter.ResourceMethod> replay(RouteCache.Route route, String httpMethod, String contentType, String[] mediaTypes, ResourceContext resourceContext, UriInfoBuilder builder) {
+        builder.addMatchedResult(resource.apply(resourceContext));
+        builder.addMatchedPathParameters(route.result().getMatchedPathParameters());
+
+        boolean shared = this.shared;
+        for (RouteCache.Hop hop : route.hops()) {
+            Object subResource = hop.locator().locate(hop.result(), resourceContext, builder, shared);
+            if (subResource == null || subResource.getClass() != hop.resourceClass())
+                return hop.locator().match(subResource, hop.result(), httpMethod, contentType, mediaTypes, resourceContext, builder, null);
+            builder.addMatchedResult(subResource);
+            builder.addMatchedPathParameters(new HashMap<>());
+            shared = hop.locator().getCache().isPresent();
+        }
+        return Optional.of(route.method());
+    }
+
+    ResourceMethods getResourceMethods() {
+        return resourceMethods;
     }
 
     @Override
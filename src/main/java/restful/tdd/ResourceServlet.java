@@ -1,38 +1,211 @@
 package restful.tdd;
 
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.GenericEntity;
 import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.MessageBodyWriter;
 import jakarta.ws.rs.ext.Providers;
-import jakarta.ws.rs.ext.RuntimeDelegate;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class ResourceServlet extends HttpServlet {
     private final Runtime runtime;
     private final Providers providers;
+    private final Executor executor;
+    private final WriterCache writers;
 
     public ResourceServlet(Runtime runtime) {
+        this(runtime, Optional.ofNullable(runtime.getExecutionMode()).flatMap(ExecutionMode::executor).orElse(null));
+    }
+
+    ResourceServlet(Runtime runtime, Executor executor) {
         this.runtime = runtime;
         this.providers = runtime.getProviders();
+        this.executor = executor;
+        this.writers = new WriterCache(providers);
+    }
+
+    @Override
+    public void init() {
+        if (runtime.getResourceRouter() instanceof DefaultResourceRouter router) {
+            router.onReload(this::bind);
+            bind(router.getRouteTable());
+        }
+    }
+
+    private void bind(RouteTable table) {
+        table.getWriterBindings().forEach(writers::bind);
+    }
+
+    WriterCache getWriterCache() {
+        return writers;
     }
 
     @Override
     protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        ResourceRouter router = runtime.getResourceRouter();
-        respond(resp, () -> router.dispatch(req, runtime.createResourceContext(req, resp)));
+        if (executor == null || !req.isAsyncSupported()) {
+            new Exchange(req, req, resp).run();
+            return;
+        }
+        Exchange exchange = new Exchange(new PinnedRequest(req), req, resp);
+        exchange.suspend();
+        try {
+            executor.execute(exchange::run);
+        } catch (RejectedExecutionException e) {
+            exchange.finish(() -> StatusResponse.of(Response.Status.SERVICE_UNAVAILABLE));
+        }
+    }
+
+    private static Optional<CompletionStage<?>> stage(OutboundResponse response) {
+        GenericEntity entity = response.getGenericEntity();
+        return entity != null && entity.getEntity() instanceof CompletionStage<?> stage ? Optional.of(stage) : Optional.empty();
+    }
+
+    private static class PinnedRequest extends HttpServletRequestWrapper {
+        private final String servletPath;
+        private final String pathInfo;
+
+        PinnedRequest(HttpServletRequest request) {
+            super(request);
+            this.servletPath = request.getServletPath();
+            this.pathInfo = request.getPathInfo();
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return pathInfo;
+        }
+    }
+
+    private class Exchange {
+        private final HttpServletRequest request;
+        private final HttpServletRequest req;
+        private final HttpServletResponse resp;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile AsyncContext async;
+        private volatile ScheduledFuture<?> timeout;
+
+        Exchange(HttpServletRequest request, HttpServletRequest req, HttpServletResponse resp) {
+            this.request = request;
+            this.req = req;
+            this.resp = resp;
+        }
+
+        void suspend() {
+            if (async != null) return;
+            AsyncContext context = req.startAsync(req, resp);
+            context.setTimeout(0);
+            async = context;
+        }
+
+        void run() {
+            OutboundResponse response;
+            try {
+                response = runtime.getResourceRouter().dispatch(request, runtime.createResourceContext(request, resp));
+            } catch (RuntimeException | Error e) {
+                finish(() -> {
+                    throw e;
+                });
+                return;
+            }
+            Optional<CompletionStage<?>> stage = stage(response);
+            if (stage.isEmpty()) {
+                finish(() -> response);
+                return;
+            }
+            long timeout = SuspendedResponse.isSuspended(stage.get()) ? 0 : runtime.getAsyncTimeout();
+            if (!req.isAsyncSupported()) {
+                finish(() -> await(response, stage.get(), timeout));
+                return;
+            }
+            suspend();
+            this.timeout = Timeouts.schedule(() -> finish(() -> StatusResponse.of(Response.Status.SERVICE_UNAVAILABLE)),
+                    timeout, TimeUnit.MILLISECONDS);
+            stage.get().whenComplete((value, error) -> finish(() -> resume(response, value, error)));
+        }
+
+        void finish(Supplier<OutboundResponse> supplier) {
+            if (!done.compareAndSet(false, true)) return;
+            ScheduledFuture<?> pending = timeout;
+            if (pending != null) pending.cancel(false);
+            respond(resp, supplier);
+            AsyncContext context = async;
+            if (context != null) context.complete();
+        }
+    }
+
+    private static OutboundResponse await(OutboundResponse response, CompletionStage<?> stage, long timeout) {
+        CompletableFuture<?> future = stage.toCompletableFuture();
+        try {
+            return resume(response, timeout > 0 ? future.get(timeout, TimeUnit.MILLISECONDS) : future.get(), null);
+        } catch (ExecutionException e) {
+            return resume(response, null, e.getCause());
+        } catch (TimeoutException e) {
+            return StatusResponse.of(Response.Status.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return StatusResponse.of(Response.Status.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private static OutboundResponse resume(OutboundResponse response, Object value, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof RuntimeException exception) throw exception;
+            if (cause instanceof Error e) throw e;
+            throw new RuntimeException(cause);
+        }
+        if (value instanceof OutboundResponse outbound) return outbound;
+        if (value == null) return StatusResponse.of(Response.Status.NO_CONTENT);
+        GenericEntity<?> entity = new GenericEntity<>(value, elementType(response.getGenericEntity().getType(), value));
+        return (OutboundResponse) Response.ok(entity, response.getMediaType()).build();
+    }
+
+    private static Type elementType(Type stage, Object value) {
+        if (stage instanceof ParameterizedType parameterized) {
+            Type element = parameterized.getActualTypeArguments()[0];
+            if (element instanceof Class<?> || element instanceof ParameterizedType) return element;
+        }
+        return value.getClass();
     }
 
     private void respond(HttpServletResponse resp, Supplier<OutboundResponse> supplier) {
         try {
             respond(resp, supplier.get());
+        } catch (RouteSignal signal) {
+            respond(resp, signal::toResponse);
         } catch (WebApplicationException exception) {
             respond(resp, () -> (OutboundResponse) exception.getResponse());
         } catch (Throwable throwable) {
@@ -41,18 +214,71 @@ public class ResourceServlet extends HttpServlet {
     }
 
     private void respond(HttpServletResponse resp, OutboundResponse response) throws IOException {
+        if (response == null) return;
         resp.setStatus(response.getStatus());
+        if (response instanceof StatusResponse status) {
+            String header = status.getHeaderName();
+            if (header != null) resp.setHeader(header, status.getHeaderString(header));
+            return;
+        }
         MultivaluedMap<String, Object> headers = response.getHeaders();
+        HeaderDelegates delegates = null;
         for (String name : headers.keySet())
             for (Object value : headers.get(name)) {
-                RuntimeDelegate.HeaderDelegate headerDelegate = RuntimeDelegate.getInstance().createHeaderDelegate(value.getClass());
-                resp.addHeader(name, headerDelegate.toString(value));
+                String header = HeaderDelegates.plain(value);
+                if (header == null) {
+                    if (delegates == null) delegates = HeaderDelegates.current();
+                    header = delegates.render(value);
+                }
+                resp.addHeader(name, header);
             }
         GenericEntity entity = response.getGenericEntity();
-        if (entity != null) {
-            MessageBodyWriter writer = providers.getMessageBodyWriter(entity.getRawType(), entity.getType(), response.getAnnotations(), response.getMediaType());
-            writer.writeTo(entity.getEntity(), entity.getRawType(), entity.getType(), response.getAnnotations(), response.getMediaType(),
-                    response.getHeaders(), resp.getOutputStream());
+        if (entity == null) return;
+        Object value = entity.getEntity();
+        if (value instanceof StreamingOutput streaming) {
+            streaming.write(resp.getOutputStream());
+            return;
+        }
+        if (value instanceof Stream<?> stream) {
+            try (stream) {
+                stream(resp, response, entity.getType(), stream.iterator());
+            }
+            return;
+        }
+        if (value instanceof Iterator<?> iterator) {
+            stream(resp, response, entity.getType(), iterator);
+            return;
+        }
+        MessageBodyWriter writer = writers.get(entity.getRawType(), entity.getType(), response.getAnnotations(), response.getMediaType());
+        writer.writeTo(value, entity.getRawType(), entity.getType(), response.getAnnotations(), response.getMediaType(),
+                response.getHeaders(), resp.getOutputStream());
+    }
+
+    private void stream(HttpServletResponse resp, OutboundResponse response, Type type, Iterator<?> elements) throws IOException {
+        OutputStream output = new ChunkOutputStream(resp.getOutputStream());
+        while (elements.hasNext()) {
+            Object element = elements.next();
+            if (element == null) continue;
+            Type elementType = elementType(type, element);
+            MessageBodyWriter writer = writers.get(element.getClass(), elementType, response.getAnnotations(), response.getMediaType());
+            writer.writeTo(element, element.getClass(), elementType, response.getAnnotations(), response.getMediaType(),
+                    response.getHeaders(), output);
+        }
+    }
+
+    private static class ChunkOutputStream extends FilterOutputStream {
+        ChunkOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
         }
     }
 
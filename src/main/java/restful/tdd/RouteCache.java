@@ -0,0 +1,91 @@
+package restful.tdd;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+class RouteCache {
+    private final int maximumSize;
+    private final LruCache<Key, Route> routes;
+    private final Predicate<Method> excludedLocators;
+
+    public RouteCache(int maximumSize) {
+        this(maximumSize, locator -> false);
+    }
+
+    public RouteCache(int maximumSize, Predicate<Method> excludedLocators) {
+        this.maximumSize = maximumSize;
+        this.routes = new LruCache<>(maximumSize);
+        this.excludedLocators = excludedLocators;
+    }
+
+    public RouteCache empty() {
+        return new RouteCache(maximumSize, excludedLocators);
+    }
+
+    public Optional<Route> get(String httpMethod, String path, String contentType, String[] accept) {
+        return Optional.ofNullable(routes.get(new Key(httpMethod, path, ContentNegotiation.essence(contentType), accept(accept))));
+    }
+
+    public void put(String httpMethod, String path, String contentType, String[] accept, Route route) {
+        routes.put(new Key(httpMethod, path, ContentNegotiation.essence(contentType), accept(accept)), route);
+    }
+
+    private static String accept(String[] accept) {
+        return accept.length == 1 ? accept[0] : String.join(",", accept);
+    }
+
+    public Recorder recorder() {
+        return new Recorder();
+    }
+
+    public long hits() {
+        return routes.hits();
+    }
+
+    public long misses() {
+        return routes.misses();
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    record Key(String httpMethod, String path, String contentType, String accept) {
+    }
+
+    record Route(RootResourceHandler root, UriTemplate.MatchResult result, List<Hop> hops, ResourceRouter.ResourceMethod method) {
+    }
+
+    record Hop(SubResourceLocators.SubResourceLocator locator, UriTemplate.MatchResult result, Class<?> resourceClass) {
+    }
+
+    class Recorder {
+        private RootResourceHandler root;
+        private UriTemplate.MatchResult result;
+        private final List<Hop> hops = new ArrayList<>();
+        private ResourceRouter.ResourceMethod method;
+        private boolean excluded;
+
+        void root(RootResourceHandler root, UriTemplate.MatchResult result) {
+            this.root = root;
+            this.result = result;
+        }
+
+        void hop(SubResourceLocators.SubResourceLocator locator, UriTemplate.MatchResult result, Class<?> resourceClass) {
+            if (excludedLocators.test(locator.getMethod())) excluded = true;
+            hops.add(0, new Hop(locator, result, resourceClass));
+        }
+
+        void method(ResourceRouter.ResourceMethod method) {
+            this.method = method;
+        }
+
+        Optional<Route> route() {
+            if (excluded || root == null || method == null) return Optional.empty();
+            return Optional.of(new Route(root, result, List.copyOf(hops), method));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package restful.tdd;
+
+import java.time.Duration;
+import java.util.*;
+
+class RouteCompiler {
+    private final List<ResourceRouter.Resource> resources = new ArrayList<>();
+    private final Map<Class<?>, long[]> classes = new LinkedHashMap<>();
+    private int newTemplates;
+    private long compileTime;
+
+    public RouteCompiler add(Class<?> resourceClass) {
+        long start = System.nanoTime();
+        resources.add(new RootResourceHandler(ResourceClass.of(resourceClass), PathTemplate.of(RootResourceHandler.getTemplate(resourceClass), () -> newTemplates++),
+                rc -> rc.getResource(resourceClass), false));
+        return compiled(resourceClass, start);
+    }
+
+    public RouteCompiler add(String template, Object resource) {
+        long start = System.nanoTime();
+        resources.add(new RootResourceHandler(resource, PathTemplate.of(template, () -> newTemplates++)));
+        return compiled(resource.getClass(), start);
+    }
+
+    public RouteCompiler addAll(Collection<Class<?>> resourceClasses) {
+        resourceClasses.forEach(this::add);
+        return this;
+    }
+
+    private RouteCompiler compiled(Class<?> resourceClass, long start) {
+        long time = System.nanoTime() - start;
+        long[] stats = classes.computeIfAbsent(resourceClass, c -> new long[2]);
+        stats[0]++;
+        stats[1] += time;
+        compileTime += time;
+        return this;
+    }
+
+    public List<ResourceRouter.Resource> getResources() {
+        return List.copyOf(resources);
+    }
+
+    public Report getReport() {
+        return new Report(classes.entrySet().stream()
+                .map(e -> new ClassReport(e.getKey(), (int) e.getValue()[0], Duration.ofNanos(e.getValue()[1]), Duration.ofNanos(ResourceClass.of(e.getKey()).getScanTime())))
+                .toList(), Duration.ofNanos(compileTime), resources.size(), newTemplates);
+    }
+
+    record ClassReport(Class<?> resourceClass, int roots, Duration time, Duration scanTime) {
+    }
+
+    record Report(List<ClassReport> classes, Duration time, int roots, int newTemplates) {
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("compiled %d root resources from %d classes in %d ms, %d new templates%n",
+                    roots, classes.size(), time.toMillis(), newTemplates));
+            classes.stream().sorted(Comparator.comparing(ClassReport::time).reversed()).forEach(c ->
+                    report.append(String.format("  %-60s %6d roots %8.3f ms (scan %.3f ms)%n", c.resourceClass().getName(), c.roots(),
+                            c.time().toNanos() / 1e6, c.scanTime().toNanos() / 1e6)));
+            return report.toString();
+        }
+    }
+}
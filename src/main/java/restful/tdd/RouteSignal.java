@@ -0,0 +1,46 @@
+package restful.tdd;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Set;
+
+class RouteSignal extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    static final RouteSignal NOT_FOUND = new RouteSignal(Response.Status.NOT_FOUND, Set.of());
+    static final RouteSignal BAD_REQUEST = new RouteSignal(Response.Status.BAD_REQUEST, Set.of());
+
+    private final Response.Status status;
+    private final Set<String> allowed;
+    private final StatusResponse response;
+
+    private RouteSignal(Response.Status status, Set<String> allowed) {
+        super(status.getReasonPhrase(), null, false, false);
+        this.status = status;
+        this.allowed = allowed;
+        this.response = StatusResponse.of(status, allowed);
+    }
+
+    static RouteSignal methodNotAllowed(Set<String> allowed) {
+        return new RouteSignal(Response.Status.METHOD_NOT_ALLOWED, allowed);
+    }
+
+    static RuntimeException badRequest(Throwable cause) {
+        if (cause instanceof WebApplicationException || cause instanceof RouteSignal) return (RuntimeException) cause;
+        if (cause instanceof Error error) throw error;
+        return BAD_REQUEST;
+    }
+
+    public Response.Status getStatus() {
+        return status;
+    }
+
+    public Set<String> getAllowed() {
+        return allowed;
+    }
+
+    OutboundResponse toResponse() {
+        return response;
+    }
+}
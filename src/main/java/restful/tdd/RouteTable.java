@@ -0,0 +1,39 @@
+package restful.tdd;
+
+import java.util.List;
+
+class RouteTable {
+    private final List<ResourceRouter.Resource> resources;
+    private final RouteTree<ResourceRouter.Resource> routes;
+    private final RouteCache cache;
+
+    public RouteTable(List<ResourceRouter.Resource> resources, RouteCache cache) {
+        this.resources = List.copyOf(resources);
+        this.routes = new RouteTree<>(this.resources);
+        this.cache = cache;
+    }
+
+    public RouteTable with(List<ResourceRouter.Resource> resources) {
+        return new RouteTable(resources, cache == null ? null : cache.empty());
+    }
+
+    public List<ResourceRouter.Resource> getResources() {
+        return resources;
+    }
+
+    RouteTree<ResourceRouter.Resource> getRoutes() {
+        return routes;
+    }
+
+    RouteCache getCache() {
+        return cache;
+    }
+
+    List<WriterCache.Binding> getWriterBindings() {
+        return resources.stream()
+                .filter(RootResourceHandler.class::isInstance)
+                .flatMap(resource -> ((RootResourceHandler) resource).getResourceMethods().getWriterBindings().stream())
+                .distinct()
+                .toList();
+    }
+}
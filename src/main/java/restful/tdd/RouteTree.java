@@ -0,0 +1,226 @@
+package restful.tdd;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+class RouteTree<T extends UriHandler> {
+    static final boolean ADAPTIVE = Boolean.getBoolean("restful.tdd.adaptive-routing");
+    private static final long UNRANKED = Long.MAX_VALUE;
+    private static final int REORDER_INTERVAL = 1024;
+
+    private final List<T> handlers;
+    private final Node root = new Node();
+    private int[] unindexed = new int[0];
+
+    private final boolean adaptive;
+    private final long[] ranks;
+    private final LongAdder[] hits;
+    private final AtomicBoolean reordering = new AtomicBoolean();
+    private volatile Ordering ordering;
+
+    public RouteTree(List<? extends T> handlers) {
+        this(handlers, ADAPTIVE);
+    }
+
+    public RouteTree(List<? extends T> handlers, boolean adaptive) {
+        this.handlers = List.copyOf(handlers);
+        this.adaptive = adaptive;
+        this.ranks = new long[this.handlers.size()];
+        for (int i = 0; i < this.handlers.size(); i++) add(i, this.handlers.get(i).getUriTemplate());
+
+        this.hits = adaptive ? new LongAdder[this.handlers.size()] : null;
+        if (adaptive) {
+            for (int i = 0; i < hits.length; i++) hits[i] = new LongAdder();
+            int[] identity = new int[this.handlers.size()];
+            for (int i = 0; i < identity.length; i++) identity[i] = i;
+            this.ordering = new Ordering(identity, identity);
+        }
+    }
+
+    private void add(int index, UriTemplate template) {
+        Optional<List<UriTemplate.Segment>> segments = template instanceof PathTemplate path ? path.getSegments() : Optional.empty();
+        if (segments.isEmpty()) {
+            ranks[index] = UNRANKED;
+            unindexed = append(unindexed, index);
+            return;
+        }
+
+        ranks[index] = rank(segments.get());
+        Node node = root;
+        for (UriTemplate.Segment segment : segments.get())
+            node = segment.variable() ? node.variable() : node.literal(segment.value());
+        node.handlers = append(node.handlers, index);
+    }
+
+    private static long rank(List<UriTemplate.Segment> segments) {
+        long literals = 0;
+        long variables = 0;
+        for (UriTemplate.Segment segment : segments) {
+            literals++;
+            if (segment.variable()) variables++;
+            else literals += segment.value().length();
+        }
+        return literals << 32 | variables;
+    }
+
+    public List<T> candidates(String path) {
+        Candidates candidates = new Candidates(unindexed);
+        if (path.isEmpty() || path.charAt(0) == '/') collect(root, path, 0, candidates);
+        return candidates.of(handlers);
+    }
+
+    int[] indexes(String path) {
+        Candidates candidates = new Candidates(unindexed);
+        if (path.isEmpty() || path.charAt(0) == '/') collect(root, path, 0, candidates);
+        return candidates.ordered(ordering);
+    }
+
+    T get(int index) {
+        return handlers.get(index);
+    }
+
+    boolean isAdaptive() {
+        return adaptive;
+    }
+
+    boolean dominates(int best, int[] candidates, int from) {
+        long rank = ranks[best];
+        if (rank == UNRANKED) return from == candidates.length;
+        for (int i = from; i < candidates.length; i++) {
+            long other = ranks[candidates[i]];
+            if (other > rank || (other == rank && candidates[i] < best)) return false;
+        }
+        return true;
+    }
+
+    void hit(int index) {
+        hits[index].increment();
+        if ((ThreadLocalRandom.current().nextInt() & (REORDER_INTERVAL - 1)) == 0) reorder();
+    }
+
+    void reorder() {
+        if (!reordering.compareAndSet(false, true)) return;
+        try {
+            long[] counts = new long[hits.length];
+            for (int i = 0; i < counts.length; i++) counts[i] = hits[i].sum();
+
+            int[] order = IntStream.range(0, counts.length).boxed()
+                    .sorted(Comparator.<Integer>comparingLong(i -> counts[i]).reversed().thenComparingInt(i -> i))
+                    .mapToInt(Integer::intValue).toArray();
+            int[] positions = new int[order.length];
+            for (int i = 0; i < order.length; i++) positions[order[i]] = i;
+
+            ordering = new Ordering(order, positions);
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    private record Ordering(int[] order, int[] positions) {
+    }
+
+    private static void collect(Node node, String path, int from, Candidates candidates) {
+        candidates.add(node.handlers);
+        if (from == path.length()) return;
+
+        int start = from + 1;
+        int end = path.indexOf('/', start);
+        if (end < 0) end = path.length();
+
+        Node literal = node.find(path, start, end);
+        if (literal != null) collect(literal, path, end, candidates);
+        if (node.variable != null && end > start) collect(node.variable, path, end, candidates);
+    }
+
+    private static int[] append(int[] indexes, int index) {
+        int[] result = Arrays.copyOf(indexes, indexes.length + 1);
+        result[indexes.length] = index;
+        return result;
+    }
+
+    private static class Node {
+        private static final int[] NO_HANDLERS = new int[0];
+        private static final int INLINE_LITERALS = 8;
+
+        private String[] keys;
+        private Node[] children;
+        private Map<String, Node> literals;
+        private Node variable;
+        private int[] handlers = NO_HANDLERS;
+
+        Node literal(String segment) {
+            if (literals != null) return literals.computeIfAbsent(segment, s -> new Node());
+
+            int size = keys == null ? 0 : keys.length;
+            for (int i = 0; i < size; i++) if (keys[i].equals(segment)) return children[i];
+
+            Node child = new Node();
+            if (size == INLINE_LITERALS) {
+                literals = new HashMap<>();
+                for (int i = 0; i < size; i++) literals.put(keys[i], children[i]);
+                literals.put(segment, child);
+                keys = null;
+                children = null;
+                return child;
+            }
+            keys = size == 0 ? new String[1] : Arrays.copyOf(keys, size + 1);
+            children = size == 0 ? new Node[1] : Arrays.copyOf(children, size + 1);
+            keys[size] = segment;
+            children[size] = child;
+            return child;
+        }
+
+        Node find(String path, int start, int end) {
+            if (literals != null) return literals.get(path.substring(start, end));
+            if (keys == null) return null;
+            for (int i = 0; i < keys.length; i++)
+                if (keys[i].length() == end - start && path.startsWith(keys[i], start)) return children[i];
+            return null;
+        }
+
+        Node variable() {
+            if (variable == null) variable = new Node();
+            return variable;
+        }
+    }
+
+    private static class Candidates {
+        private int[] indexes;
+        private int size;
+
+        Candidates(int[] unindexed) {
+            this.indexes = Arrays.copyOf(unindexed, Math.max(unindexed.length, 4));
+            this.size = unindexed.length;
+        }
+
+        void add(int[] handlers) {
+            if (handlers.length == 0) return;
+            if (size + handlers.length > indexes.length)
+                indexes = Arrays.copyOf(indexes, Math.max(indexes.length * 2, size + handlers.length));
+            System.arraycopy(handlers, 0, indexes, size, handlers.length);
+            size += handlers.length;
+        }
+
+        int[] ordered(Ordering ordering) {
+            if (ordering == null) {
+                Arrays.sort(indexes, 0, size);
+                return Arrays.copyOf(indexes, size);
+            }
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) result[i] = ordering.positions()[indexes[i]];
+            Arrays.sort(result);
+            for (int i = 0; i < size; i++) result[i] = ordering.order()[result[i]];
+            return result;
+        }
+
+        <T> List<T> of(List<T> handlers) {
+            Arrays.sort(indexes, 0, size);
+            List<T> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) result.add(handlers.get(indexes[i]));
+            return result;
+        }
+    }
+}
@@ -16,4 +16,12 @@ public interface Runtime {
     Context getApplicationContext();
 
     ResourceRouter getResourceRouter();
+
+    default long getAsyncTimeout() {
+        return 30_000;
+    }
+
+    default ExecutionMode getExecutionMode() {
+        return ExecutionMode.PLATFORM;
+    }
 }
@@ -0,0 +1,198 @@
+package restful.tdd;
+
+import jakarta.ws.rs.core.*;
+
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.*;
+
+class StatusResponse extends OutboundResponse {
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+    private static final Map<Status, StatusResponse> responses = new EnumMap<>(Status.class);
+
+    static {
+        for (Status status : Status.values()) responses.put(status, new StatusResponse(status, Set.of()));
+    }
+
+    private final Status status;
+    private final Set<String> allowed;
+    private final String header;
+    private final String value;
+    private final MultivaluedMap<String, Object> headers;
+    private final MultivaluedMap<String, String> stringHeaders;
+
+    private StatusResponse(Status status, Set<String> allowed) {
+        this(status, allowed, HttpHeaders.ALLOW, allowed.isEmpty() ? null : String.join(",", new TreeSet<>(allowed)));
+    }
+
+    private StatusResponse(Status status, Set<String> allowed, String header, String value) {
+        this.status = status;
+        this.allowed = Set.copyOf(allowed);
+        this.header = value == null ? null : header;
+        this.value = value;
+        this.headers = new AbstractMultivaluedMap<>(value == null ? Map.of() : Map.of(header, List.of(value))) {
+        };
+        this.stringHeaders = new AbstractMultivaluedMap<>(value == null ? Map.of() : Map.of(header, List.of(value))) {
+        };
+    }
+
+    static StatusResponse of(Status status) {
+        return responses.get(status);
+    }
+
+    static StatusResponse of(Status status, Set<String> allowed) {
+        return allowed.isEmpty() ? of(status) : new StatusResponse(status, allowed);
+    }
+
+    static StatusResponse of(Status status, String header, String value) {
+        return new StatusResponse(status, Set.of(), header, value);
+    }
+
+    String getHeaderName() {
+        return header;
+    }
+
+    @Override
+    GenericEntity getGenericEntity() {
+        return null;
+    }
+
+    @Override
+    Annotation[] getAnnotations() {
+        return NO_ANNOTATIONS;
+    }
+
+    @Override
+    public int getStatus() {
+        return status.getStatusCode();
+    }
+
+    @Override
+    public StatusType getStatusInfo() {
+        return status;
+    }
+
+    @Override
+    public Object getEntity() {
+        return null;
+    }
+
+    @Override
+    public <T> T readEntity(Class<T> entityType) {
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public <T> T readEntity(GenericType<T> entityType) {
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public <T> T readEntity(Class<T> entityType, Annotation[] annotations) {
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public <T> T readEntity(GenericType<T> entityType, Annotation[] annotations) {
+        throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean hasEntity() {
+        return false;
+    }
+
+    @Override
+    public boolean bufferEntity() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return null;
+    }
+
+    @Override
+    public Locale getLanguage() {
+        return null;
+    }
+
+    @Override
+    public int getLength() {
+        return -1;
+    }
+
+    @Override
+    public Set<String> getAllowedMethods() {
+        return allowed;
+    }
+
+    @Override
+    public Map<String, NewCookie> getCookies() {
+        return Map.of();
+    }
+
+    @Override
+    public EntityTag getEntityTag() {
+        return null;
+    }
+
+    @Override
+    public Date getDate() {
+        return null;
+    }
+
+    @Override
+    public Date getLastModified() {
+        return null;
+    }
+
+    @Override
+    public URI getLocation() {
+        return null;
+    }
+
+    @Override
+    public Set<Link> getLinks() {
+        return Set.of();
+    }
+
+    @Override
+    public boolean hasLink(String relation) {
+        return false;
+    }
+
+    @Override
+    public Link getLink(String relation) {
+        return null;
+    }
+
+    @Override
+    public Link.Builder getLinkBuilder(String relation) {
+        return null;
+    }
+
+    @Override
+    public MultivaluedMap<String, Object> getMetadata() {
+        return headers;
+    }
+
+    @Override
+    public MultivaluedMap<String, String> getStringHeaders() {
+        return stringHeaders;
+    }
+
+    @Override
+    public String getHeaderString(String name) {
+        return header != null && header.equalsIgnoreCase(name) ? value : null;
+    }
+
+    @Override
+    public String toString() {
+        return status.getStatusCode() + " " + status.getReasonPhrase();
+    }
+}
@@ -0,0 +1,139 @@
+package restful.tdd;
+
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.CompletionCallback;
+import jakarta.ws.rs.container.TimeoutHandler;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+
+class SuspendedResponse implements AsyncResponse {
+    private final Stage result = new Stage();
+    private volatile TimeoutHandler timeoutHandler;
+    private volatile boolean cancelled;
+    private ScheduledFuture<?> timeout;
+
+    SuspendedResponse() {
+        result.whenComplete((value, error) -> cancelTimeout());
+    }
+
+    CompletionStage<Object> stage() {
+        return result;
+    }
+
+    static boolean isSuspended(CompletionStage<?> stage) {
+        return stage instanceof Stage;
+    }
+
+    private static class Stage extends CompletableFuture<Object> {
+    }
+
+    @Override
+    public boolean resume(Object response) {
+        return result.complete(response);
+    }
+
+    @Override
+    public boolean resume(Throwable response) {
+        return result.completeExceptionally(response);
+    }
+
+    @Override
+    public boolean cancel() {
+        return cancel(StatusResponse.of(Response.Status.SERVICE_UNAVAILABLE));
+    }
+
+    @Override
+    public boolean cancel(int retryAfter) {
+        return cancel(StatusResponse.of(Response.Status.SERVICE_UNAVAILABLE, HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter)));
+    }
+
+    @Override
+    public boolean cancel(Date retryAfter) {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(retryAfter.toInstant().atOffset(ZoneOffset.UTC));
+        return cancel(StatusResponse.of(Response.Status.SERVICE_UNAVAILABLE, HttpHeaders.RETRY_AFTER, date));
+    }
+
+    private boolean cancel(StatusResponse response) {
+        if (!result.complete(response)) return false;
+        cancelled = true;
+        return true;
+    }
+
+    @Override
+    public boolean isSuspended() {
+        return !result.isDone();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    @Override
+    public synchronized boolean setTimeout(long time, TimeUnit unit) {
+        if (result.isDone()) return false;
+        if (timeout != null) timeout.cancel(false);
+        timeout = Timeouts.schedule(this::timeout, time, unit);
+        return true;
+    }
+
+    private synchronized void cancelTimeout() {
+        if (timeout != null) timeout.cancel(false);
+        timeout = null;
+    }
+
+    private void timeout() {
+        if (result.isDone()) return;
+        TimeoutHandler handler = timeoutHandler;
+        if (handler != null) handler.handleTimeout(this);
+        if (!result.isDone()) result.complete(StatusResponse.of(Response.Status.SERVICE_UNAVAILABLE));
+    }
+
+    @Override
+    public void setTimeoutHandler(TimeoutHandler handler) {
+        this.timeoutHandler = handler;
+    }
+
+    @Override
+    public Collection<Class<?>> register(Class<?> callback) {
+        try {
+            return register(callback.getConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+        Map<Class<?>, Collection<Class<?>>> registered = new HashMap<>();
+        registered.put(callback, register(callback));
+        for (Class<?> other : callbacks) registered.put(other, register(other));
+        return registered;
+    }
+
+    @Override
+    public Collection<Class<?>> register(Object callback) {
+        if (callback == null) throw new NullPointerException();
+        if (!(callback instanceof CompletionCallback completion)) return Set.of();
+        result.whenComplete((value, error) -> completion.onComplete(error));
+        return Set.of(CompletionCallback.class);
+    }
+
+    @Override
+    public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+        Map<Class<?>, Collection<Class<?>>> registered = new HashMap<>();
+        registered.put(callback.getClass(), register(callback));
+        for (Object other : callbacks) registered.put(other.getClass(), register(other));
+        return registered;
+    }
+}
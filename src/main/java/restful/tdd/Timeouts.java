@@ -0,0 +1,23 @@
+package restful.tdd;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+class Timeouts {
+    private static final ScheduledThreadPoolExecutor scheduler = scheduler();
+
+    private static ScheduledThreadPoolExecutor scheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "async-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return delay <= 0 ? null : scheduler.schedule(task, delay, unit);
+    }
+}
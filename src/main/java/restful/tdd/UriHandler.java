@@ -17,6 +17,16 @@ class UriHandlers {
         return matched(path, handlers, r -> true).flatMap(r -> mapper.apply(r.matched(), r.handler()));
     }
 
+    public static <T extends UriHandler, R> Optional<R> mapMatched(String path, RouteTree<T> handlers, BiFunction<Optional<UriTemplate.MatchResult>, T, Optional<R>> mapper) {
+        if (!handlers.isAdaptive()) return mapMatched(path, handlers.candidates(path), mapper);
+        return matched(path, handlers, r -> true).flatMap(r -> mapper.apply(r.matched(), r.handler()));
+    }
+
+    public static <T extends UriHandler> Optional<T> match(String path, RouteTree<T> handlers, Function<UriTemplate.MatchResult, Boolean> matchFunction) {
+        if (!handlers.isAdaptive()) return match(path, handlers.candidates(path), matchFunction);
+        return matched(path, handlers, matchFunction).map(Result::handler);
+    }
+
     public static <T extends UriHandler> Optional<T> match(String path, List<T> handlers, Function<UriTemplate.MatchResult, Boolean> matchFunction) {
         return matched(path, handlers, matchFunction).map(Result::handler);
     }
@@ -33,6 +43,28 @@ class UriHandlers {
                 .findFirst();
     }
 
+    private static <T extends UriHandler> Optional<Result<T>> matched(String path, RouteTree<T> handlers, Function<UriTemplate.MatchResult, Boolean> matchFunction) {
+        int[] candidates = handlers.indexes(path);
+        Result<T> best = null;
+        int bestIndex = -1;
+        for (int i = 0; i < candidates.length; i++) {
+            T handler = handlers.get(candidates[i]);
+            Result<T> result = new Result<>(handler.getUriTemplate().match(path), handler, matchFunction);
+            if (!result.isMatched()) continue;
+
+            int order = best == null ? -1 : result.compareTo(best);
+            if (order < 0 || (order == 0 && candidates[i] < bestIndex)) {
+                best = result;
+                bestIndex = candidates[i];
+            }
+            if (handlers.dominates(bestIndex, candidates, i + 1)) break;
+        }
+        if (best == null) return Optional.empty();
+
+        handlers.hit(bestIndex);
+        return Optional.of(best);
+    }
+
     private record Result<T extends UriHandler>(
             Optional<UriTemplate.MatchResult> matched,
             T handler,
@@ -12,4 +12,8 @@ interface UriInfoBuilder {
     void addMatchedPathParameters(Map<String, String> pathParameters);
 
     UriInfo createUriInfo();
+
+    default Converters getConverters() {
+        return Converters.DEFAULT;
+    }
 }
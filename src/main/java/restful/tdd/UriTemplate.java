@@ -14,6 +14,9 @@ interface UriTemplate extends Comparable<UriTemplate.MatchResult> {
 
         Map<String, String> getMatchedPathParameters();
     }
+
+    record Segment(String value, boolean variable) {
+    }
 }
 
 
@@ -24,27 +27,91 @@ class PathTemplate implements UriTemplate {
     private static final String VARIABLE_BANE = "\\w[\\w\\.-]*";
     private static final String NON_BRACKETS = "[^\\{}]+";
     public static final String DEFAULT_VARIABLE_PATTERN = "([^/]+?)";
+    private static final Pattern LITERAL_SEGMENT = Pattern.compile("[\\w~%,;=@:!&'-]+");
+    private static final Pattern DEFAULT_VARIABLE_SEGMENT = Pattern.compile(LEFT_BRACKET + VARIABLE_BANE + RIGHT_BRACKET);
+    private static final int[] NO_OFFSETS = new int[0];
 
+    enum Strategy {
+        SEGMENTS, REGEX
+    }
 
-    private int variableStartFrom = 2;
+
+    private static final int variableStartFrom = 2;
+    private static final Pattern variable = Pattern.compile(LEFT_BRACKET + group(VARIABLE_BANE) + group(":" + group(NON_BRACKETS)) + "?" + RIGHT_BRACKET);
+    private static final WeakInterner<PathTemplate> templates = new WeakInterner<>();
+    private static final WeakInterner<List<String>> variableTables = new WeakInterner<>();
+    private static final String[] NO_SEGMENTS = new String[0];
 
     private final Pattern pattern;
-    private final Pattern variable = Pattern.compile(LEFT_BRACKET + group(VARIABLE_BANE) + group(":" + group(NON_BRACKETS)) + "?" + RIGHT_BRACKET);
     private static final int VARIABLE_NAME_GROUP = 1;
     private static final int VARIABLE_PATTERN_GROUP = 3;
-    private final List<String> variables = new ArrayList<>();
+    private final String template;
+    private final List<String> variables;
     private int specificPatternCount = 0;
+    private final String[] segments;
+    private final Strategy strategy;
 
     private static String group(String pattern) {
         return "(" + pattern + ")";
     }
 
     public PathTemplate(String template) {
-        pattern = Pattern.compile(group(variable(template)) + "(/.*)?");
-        variableStartFrom = 2;
+        this(template, Strategy.SEGMENTS);
+    }
+
+    PathTemplate(String template, Strategy preferred) {
+        List<String> variables = new ArrayList<>();
+        String regex = variable(template, variables);
+        this.template = template;
+        this.variables = variables.isEmpty() ? List.of() : variableTables.intern(List.copyOf(variables));
+        segments = segments(template);
+        strategy = segments != null && preferred == Strategy.SEGMENTS ? Strategy.SEGMENTS : Strategy.REGEX;
+        pattern = strategy == Strategy.REGEX ? Pattern.compile(group(regex) + "(/.*)?") : null;
+    }
+
+    public static PathTemplate of(String template) {
+        return of(template, () -> {
+        });
+    }
+
+    static PathTemplate of(String template, Runnable created) {
+        PathTemplate compiled = new PathTemplate(template);
+        PathTemplate shared = templates.intern(compiled);
+        if (shared == compiled) created.run();
+        return shared;
+    }
+
+    public Optional<List<Segment>> getSegments() {
+        if (segments == null) return Optional.empty();
+        List<Segment> result = new ArrayList<>(segments.length);
+        int variable = 0;
+        for (String segment : segments)
+            result.add(segment == null ? new Segment("{" + variables.get(variable++) + "}", true) : new Segment(segment, false));
+        return Optional.of(result);
+    }
+
+    List<String> getVariables() {
+        return variables;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    private static String[] segments(String template) {
+        if (template.isEmpty()) return NO_SEGMENTS;
+        if (!template.startsWith("/")) return null;
+
+        String[] segments = template.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (LITERAL_SEGMENT.matcher(segments[i]).matches()) segments[i] = segments[i].intern();
+            else if (DEFAULT_VARIABLE_SEGMENT.matcher(segments[i]).matches()) segments[i] = null;
+            else return null;
+        }
+        return segments;
     }
 
-    private String variable(String template) {
+    private String variable(String template, List<String> variables) {
         return variable.matcher(template).replaceAll(result -> {
             String variableName = result.group(VARIABLE_NAME_GROUP);
             String pattern = result.group(VARIABLE_PATTERN_GROUP);
@@ -65,35 +132,58 @@ class PathTemplate implements UriTemplate {
     class PathMatchResult implements MatchResult {
 
         private final int specificParameterCount;
-        private int count;
-        private int matchLiteralCount;
-        private Matcher matcher;
-        private Map<String, String> parameters = new HashMap<>();
-
-        public PathMatchResult(Matcher matcher) {
-            this.matcher = matcher;
-            this.count = matcher.groupCount();
-            this.matchLiteralCount = matcher.group(1).length();
+        private final String path;
+        private final int end;
+        private final int[] offsets;
+        private final int matchLiteralCount;
+        private Map<String, String> parameters;
+
+        public PathMatchResult(Matcher matcher, String path) {
+            this.path = path;
+            this.end = matcher.end(1);
             this.specificParameterCount = specificPatternCount;
+            this.offsets = variables.isEmpty() ? NO_OFFSETS : new int[variables.size() * 2];
 
+            int literalCount = end;
             for (int i = 0; i < variables.size(); i++) {
-                this.parameters.put(variables.get(i), matcher.group(variableStartFrom + i));
-                this.matchLiteralCount -= matcher.group(variableStartFrom + i).length();
+                offsets[i * 2] = matcher.start(variableStartFrom + i);
+                offsets[i * 2 + 1] = matcher.end(variableStartFrom + i);
+                literalCount -= offsets[i * 2 + 1] - offsets[i * 2];
             }
+            this.matchLiteralCount = literalCount;
+        }
+
+        PathMatchResult(String path, int end, int[] offsets, int matchLiteralCount) {
+            this.path = path;
+            this.end = end;
+            this.offsets = offsets;
+            this.matchLiteralCount = matchLiteralCount;
+            this.specificParameterCount = specificPatternCount;
         }
 
         @Override
         public String getMatchedPath() {
-            return matcher.group(1);
+            return end == path.length() ? path : path.substring(0, end);
         }
 
         @Override
         public String getRemaining() {
-            return matcher.group(count);
+            return end == path.length() ? null : path.substring(end);
         }
 
         @Override
         public Map<String, String> getMatchedPathParameters() {
+            Map<String, String> parameters = this.parameters;
+            if (parameters == null) {
+                if (offsets.length == 0) parameters = Map.of();
+                else {
+                    Map<String, String> matched = new HashMap<>();
+                    for (int i = 0; i < variables.size(); i++)
+                        matched.put(variables.get(i), path.substring(offsets[i * 2], offsets[i * 2 + 1]));
+                    parameters = Collections.unmodifiableMap(matched);
+                }
+                this.parameters = parameters;
+            }
             return parameters;
         }
 
@@ -102,8 +192,8 @@ class PathTemplate implements UriTemplate {
             PathMatchResult result = (PathMatchResult) o;
             if (matchLiteralCount > result.matchLiteralCount) return -1;
             if (matchLiteralCount < result.matchLiteralCount) return 1;
-            if (parameters.size() > result.parameters.size()) return -1;
-            if (parameters.size() < result.parameters.size()) return 1;
+            if (offsets.length > result.offsets.length) return -1;
+            if (offsets.length < result.offsets.length) return 1;
             if (specificParameterCount > result.specificParameterCount) return -1;
             if (specificParameterCount < result.specificParameterCount) return 1;
             return 0;
@@ -112,14 +202,56 @@ class PathTemplate implements UriTemplate {
 
     @Override
     public Optional<MatchResult> match(String path) {
+        if (strategy == Strategy.SEGMENTS) return matchSegments(path);
+
         Matcher matcher = pattern.matcher(path);
         if (!matcher.matches()) return Optional.empty();
 
-        return Optional.of(new PathMatchResult(matcher));
+        return Optional.of(new PathMatchResult(matcher, path));
+    }
+
+    private Optional<MatchResult> matchSegments(String path) {
+        int[] offsets = NO_OFFSETS;
+        int position = 0;
+        int literalCount = 0;
+        int variable = 0;
+
+        for (String segment : segments) {
+            if (position >= path.length() || path.charAt(position) != '/') return Optional.empty();
+            position++;
+            literalCount++;
+
+            if (segment == null) {
+                int end = path.indexOf('/', position);
+                if (end < 0) end = path.length();
+                if (end == position) return Optional.empty();
+                if (variable == 0) offsets = new int[variables.size() * 2];
+                offsets[variable++] = position;
+                offsets[variable++] = end;
+                position = end;
+            } else {
+                if (!path.startsWith(segment, position)) return Optional.empty();
+                position += segment.length();
+                literalCount += segment.length();
+            }
+        }
+        if (position < path.length() && path.charAt(position) != '/') return Optional.empty();
+
+        return Optional.of(new PathMatchResult(path, position, offsets, literalCount));
     }
 
     @Override
     public int compareTo(MatchResult o) {
         return 0;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PathTemplate other && template.equals(other.template) && strategy == other.strategy;
+    }
+
+    @Override
+    public int hashCode() {
+        return template.hashCode();
+    }
 }
\ No newline at end of file
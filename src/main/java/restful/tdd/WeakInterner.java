@@ -0,0 +1,59 @@
+package restful.tdd;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+class WeakInterner<T> {
+    private final ConcurrentHashMap<Ref<T>, Ref<T>> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+    T intern(T value) {
+        expunge();
+        Ref<T> fresh = new Ref<>(value, queue);
+        while (true) {
+            Ref<T> existing = entries.putIfAbsent(fresh, fresh);
+            if (existing == null) return value;
+            T current = existing.get();
+            if (current != null) return current;
+            entries.remove(existing, existing);
+        }
+    }
+
+    int size() {
+        expunge();
+        int size = 0;
+        for (Ref<T> entry : entries.keySet()) if (entry.get() != null) size++;
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expunge() {
+        Reference<? extends T> reference;
+        while ((reference = queue.poll()) != null) entries.remove((Ref<T>) reference);
+    }
+
+    private static class Ref<T> extends WeakReference<T> {
+        private final int hash;
+
+        Ref(T value, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Ref<?> other) || hash != other.hash) return false;
+            Object value = get();
+            return value != null && Objects.equals(value, other.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package restful.tdd;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+class WriterCache {
+    private static final int MAXIMUM_SIZE = 512;
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    record Binding(Class<?> rawType, Type genericType, MediaType mediaType) {
+    }
+
+    private record Annotated(Binding binding, List<Annotation> annotations) {
+    }
+
+    private final Providers providers;
+    private final LruCache<Binding, MessageBodyWriter> writers = new LruCache<>(MAXIMUM_SIZE);
+    private final LruCache<Annotated, MessageBodyWriter> annotated = new LruCache<>(MAXIMUM_SIZE);
+
+    WriterCache(Providers providers) {
+        this.providers = providers;
+    }
+
+    MessageBodyWriter get(Class<?> rawType, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        Binding binding = new Binding(rawType, genericType, mediaType);
+        if (annotations == null || annotations.length == 0) return resolve(writers, binding, binding, annotations);
+        return resolve(annotated, new Annotated(binding, List.of(annotations)), binding, annotations);
+    }
+
+    void bind(Binding binding) {
+        resolve(writers, binding, binding, NO_ANNOTATIONS);
+    }
+
+    int size() {
+        return writers.size() + annotated.size();
+    }
+
+    private <K> MessageBodyWriter resolve(LruCache<K, MessageBodyWriter> cache, K key, Binding binding, Annotation[] annotations) {
+        MessageBodyWriter writer = cache.get(key);
+        if (writer != null) return writer;
+        writer = providers.getMessageBodyWriter(binding.rawType(), binding.genericType(), annotations, binding.mediaType());
+        if (writer != null) cache.put(key, writer);
+        return writer;
+    }
+
+    static List<Binding> bindings(Method[] methods) {
+        return Arrays.stream(methods)
+                .filter(m -> Arrays.stream(m.getAnnotations()).anyMatch(a -> a.annotationType().isAnnotationPresent(HttpMethod.class)))
+                .filter(m -> isStatic(m.getReturnType()))
+                .flatMap(m -> produces(m).map(type -> new Binding(m.getReturnType(), m.getGenericReturnType(), type)))
+                .distinct()
+                .toList();
+    }
+
+    private static boolean isStatic(Class<?> type) {
+        return Modifier.isFinal(type.getModifiers()) && !type.isPrimitive() && !type.isArray()
+                && !Response.class.isAssignableFrom(type) && !CompletionStage.class.isAssignableFrom(type);
+    }
+
+    private static Stream<MediaType> produces(Method method) {
+        return Arrays.stream(ResourceMethodGroup.produces(method))
+                .map(type -> ContentNegotiation.isConcrete(type) ? type : null)
+                .distinct();
+    }
+}
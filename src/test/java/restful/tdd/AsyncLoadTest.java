@@ -0,0 +1,178 @@
+package restful.tdd;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.*;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import tdd.di.Context;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class AsyncLoadTest {
+    private static final int THREADS = 12;
+    private static final int REQUESTS = 48;
+    private static final long LATENCY = 300;
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peak = new AtomicInteger();
+    private static volatile CompletableFuture<String> gate;
+
+    private Server server;
+    private int port;
+
+    @BeforeEach
+    public void start() throws Exception {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        Mockito.when(delegate.createResponseBuilder()).thenAnswer(i -> new StubResponseBuilder());
+
+        server = new Server(new QueuedThreadPool(THREADS, THREADS));
+        ServerConnector connector = new ServerConnector(server, 1, 1);
+        connector.setPort(0);
+        server.addConnector(connector);
+
+        ServletContextHandler handler = new ServletContextHandler(server, "/");
+        ServletHolder holder = new ServletHolder(new ResourceServlet(new LoadRuntime()));
+        holder.setAsyncSupported(true);
+        handler.addServlet(holder, "/");
+        server.setHandler(handler);
+        server.start();
+        port = connector.getLocalPort();
+
+        inFlight.set(0);
+        peak.set(0);
+    }
+
+    @AfterEach
+    public void stop() throws Exception {
+        server.stop();
+    }
+
+    @Test
+    public void should_serve_more_concurrent_requests_async_than_blocking_with_fixed_threads() throws Exception {
+        int blocking = load("/blocking");
+        int async = load("/async");
+
+        Assertions.assertTrue(blocking < THREADS, "blocking peak " + blocking);
+        Assertions.assertEquals(REQUESTS, async, "async peak " + async + ", blocking peak " + blocking);
+    }
+
+    private int load(String path) throws Exception {
+        peak.set(0);
+        gate = new CompletableFuture<String>().completeOnTimeout("async", 10, TimeUnit.SECONDS);
+        HttpClient client = HttpClient.newHttpClient();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++)
+            responses.add(client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build(), HttpResponse.BodyHandlers.ofString()));
+        for (CompletableFuture<HttpResponse<String>> response : responses)
+            Assertions.assertEquals(200, response.get(30, TimeUnit.SECONDS).statusCode());
+        return peak.get();
+    }
+
+    private static int enter() {
+        return peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    }
+
+    private static void leave() {
+        inFlight.decrementAndGet();
+    }
+
+    @Path("/blocking")
+    public static class Blocking {
+        @GET
+        public String get() throws InterruptedException {
+            enter();
+            try {
+                Thread.sleep(LATENCY);
+                return "blocking";
+            } finally {
+                leave();
+            }
+        }
+    }
+
+    @Path("/async")
+    public static class Async {
+        @GET
+        public CompletionStage<String> get() {
+            if (enter() == REQUESTS) gate.complete("async");
+            return gate.whenComplete((value, error) -> leave());
+        }
+    }
+
+    static class LoadRuntime implements Runtime {
+        private final ResourceRouter router = new DefaultResourceRouter(this, List.of(new RootResourceHandler(Blocking.class), new RootResourceHandler(Async.class)));
+        private final ResourceContext context = Mockito.mock(ResourceContext.class);
+        private final Providers providers = Mockito.mock(Providers.class);
+
+        LoadRuntime() {
+            Mockito.when(context.getResource(eq(Blocking.class))).thenReturn(new Blocking());
+            Mockito.when(context.getResource(eq(Async.class))).thenReturn(new Async());
+            Mockito.when(providers.getMessageBodyWriter(eq(String.class), any(), any(), any())).thenReturn(new MessageBodyWriter<>() {
+                @Override
+                public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+                    return true;
+                }
+
+                @Override
+                public void writeTo(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                                    MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) {
+                }
+            });
+        }
+
+        @Override
+        public Providers getProviders() {
+            return providers;
+        }
+
+        @Override
+        public ResourceContext createResourceContext(HttpServletRequest request, HttpServletResponse response) {
+            return context;
+        }
+
+        @Override
+        public UriInfoBuilder createUriInfoBuilder(HttpServletRequest request) {
+            return new StubUriInfoBuilder();
+        }
+
+        @Override
+        public Context getApplicationContext() {
+            return null;
+        }
+
+        @Override
+        public ResourceRouter getResourceRouter() {
+            return router;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package restful.tdd;
+
+import jakarta.servlet.Servlet;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.*;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class AsyncServletTest extends ServletTest {
+    private Runtime runtime;
+    private Providers providers;
+
+    @Override
+    protected Servlet getServlet() {
+        runtime = Mockito.mock(Runtime.class);
+        providers = Mockito.mock(Providers.class);
+        ResourceContext context = Mockito.mock(ResourceContext.class);
+        ResourceRouter router = new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Messages.class)));
+
+        when(runtime.getResourceRouter()).thenReturn(router);
+        when(runtime.createUriInfoBuilder(any())).thenAnswer(i -> new StubUriInfoBuilder());
+        when(runtime.createResourceContext(any(), any())).thenReturn(context);
+        when(runtime.getProviders()).thenReturn(providers);
+        when(runtime.getAsyncTimeout()).thenReturn(500L);
+        when(context.getResource(eq(Messages.class))).thenReturn(new Messages());
+        return new ResourceServlet(runtime);
+    }
+
+    @BeforeEach
+    public void before() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenAnswer(i -> new StubResponseBuilder());
+        when(providers.getMessageBodyWriter(eq(String.class), eq(String.class), any(), any())).thenReturn(new MessageBodyWriter<>() {
+            @Override
+            public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+                return true;
+            }
+
+            @Override
+            public void writeTo(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) {
+                try {
+                    entityStream.write(s.getBytes(StandardCharsets.UTF_8));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void should_write_value_of_completion_stage_when_completed() {
+        HttpResponse<String> response = get("/messages/stage");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("completed", response.body());
+    }
+
+    @Test
+    public void should_write_value_resumed_by_async_response() {
+        HttpResponse<String> response = get("/messages/suspended");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("resumed", response.body());
+    }
+
+    @Test
+    public void should_return_204_if_completion_stage_completed_with_null() {
+        Assertions.assertEquals(204, get("/messages/empty").statusCode());
+    }
+
+    @Test
+    public void should_use_response_of_web_application_exception_completed_exceptionally() {
+        Assertions.assertEquals(409, get("/messages/conflict").statusCode());
+    }
+
+    @Test
+    public void should_return_503_if_completion_stage_not_completed_before_timeout() {
+        Assertions.assertEquals(503, get("/messages/never").statusCode());
+    }
+
+    @Test
+    public void should_return_503_if_async_response_timed_out() {
+        Assertions.assertEquals(503, get("/messages/suspended-timeout").statusCode());
+    }
+
+    @Test
+    public void should_not_apply_async_timeout_to_suspended_async_response() {
+        HttpResponse<String> response = get("/messages/slow");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("resumed", response.body());
+    }
+
+    @Test
+    public void should_let_timeout_handler_resume_async_response() {
+        HttpResponse<String> response = get("/messages/handled");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("handled", response.body());
+    }
+
+    @Test
+    public void should_send_retry_after_if_async_response_cancelled() {
+        HttpResponse<String> response = get("/messages/cancelled");
+
+        Assertions.assertEquals(503, response.statusCode());
+        Assertions.assertEquals("30", response.headers().firstValue(HttpHeaders.RETRY_AFTER).get());
+    }
+
+    @Path("/messages")
+    public static class Messages {
+        @GET
+        @Path("/stage")
+        public CompletionStage<String> stage() {
+            return CompletableFuture.supplyAsync(() -> "completed", CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+        }
+
+        @GET
+        @Path("/suspended")
+        public void suspended(@Suspended AsyncResponse response) {
+            CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS).execute(() -> response.resume("resumed"));
+        }
+
+        @GET
+        @Path("/slow")
+        public void slow(@Suspended AsyncResponse response) {
+            CompletableFuture.delayedExecutor(800, TimeUnit.MILLISECONDS).execute(() -> response.resume("resumed"));
+        }
+
+        @GET
+        @Path("/handled")
+        public void handled(@Suspended AsyncResponse response) {
+            response.setTimeoutHandler(timedOut -> timedOut.resume("handled"));
+            response.setTimeout(50, TimeUnit.MILLISECONDS);
+        }
+
+        @GET
+        @Path("/empty")
+        public CompletionStage<String> empty() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @GET
+        @Path("/conflict")
+        public CompletionStage<String> conflict() {
+            return CompletableFuture.failedFuture(new WebApplicationException(409));
+        }
+
+        @GET
+        @Path("/never")
+        public CompletionStage<String> never() {
+            return new CompletableFuture<>();
+        }
+
+        @GET
+        @Path("/cancelled")
+        public void cancelled(@Suspended AsyncResponse response) {
+            response.cancel(30);
+        }
+
+        @GET
+        @Path("/suspended-timeout")
+        public void suspendedTimeout(@Suspended AsyncResponse response) {
+            response.setTimeout(50, TimeUnit.MILLISECONDS);
+        }
+    }
+}
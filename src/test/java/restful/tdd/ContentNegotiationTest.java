@@ -0,0 +1,78 @@
+package restful.tdd;
+
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ContentNegotiationTest {
+
+    @Test
+    public void should_parse_media_type_with_parameters() {
+        MediaType type = ContentNegotiation.parse("text/html; charset=\"utf-8\"; q=0.5");
+
+        Assertions.assertEquals("text", type.getType());
+        Assertions.assertEquals("html", type.getSubtype());
+        Assertions.assertEquals("utf-8", type.getParameters().get("charset"));
+        Assertions.assertEquals(0.5, ContentNegotiation.quality(type));
+    }
+
+    @Test
+    public void should_sort_accepted_media_types_by_quality_then_specificity() {
+        List<MediaType> accepted = ContentNegotiation.accept("*/*;q=0.1, text/*, application/json;q=0.9, text/html");
+
+        Assertions.assertEquals(List.of("text/html", "text/*", "application/json", "*/*"), accepted.stream().map(t -> t.getType() + "/" + t.getSubtype()).toList());
+    }
+
+    @Test
+    public void should_keep_media_types_not_acceptable_after_acceptable_ones() {
+        List<MediaType> accepted = ContentNegotiation.accept("text/html;q=0, application/json");
+
+        Assertions.assertEquals(List.of("json", "html"), accepted.stream().map(MediaType::getSubtype).toList());
+        Assertions.assertEquals(0, ContentNegotiation.quality(accepted.get(1)));
+    }
+
+    @Test
+    public void should_exclude_media_type_if_most_specific_matching_range_has_zero_quality() {
+        List<MediaType> accepted = ContentNegotiation.accept("*/*, text/*;q=0, text/html");
+
+        Assertions.assertFalse(ContentNegotiation.isExcluded(MediaType.TEXT_HTML_TYPE, accepted));
+        Assertions.assertTrue(ContentNegotiation.isExcluded(MediaType.TEXT_PLAIN_TYPE, accepted));
+        Assertions.assertFalse(ContentNegotiation.isExcluded(MediaType.APPLICATION_JSON_TYPE, accepted));
+    }
+
+    @Test
+    public void should_share_parsed_content_type_by_type_and_subtype() {
+        Assertions.assertSame(ContentNegotiation.contentType("application/json"), ContentNegotiation.contentType(" Application/JSON "));
+        Assertions.assertEquals("application/json", ContentNegotiation.essence("Application/JSON; charset=UTF-8"));
+    }
+
+    @Test
+    public void should_not_cache_content_type_with_parameters() {
+        String header = "multipart/form-data; boundary=abc";
+
+        Assertions.assertNotSame(ContentNegotiation.contentType(header), ContentNegotiation.contentType(header));
+        Assertions.assertEquals("abc", ContentNegotiation.contentType(header).getParameters().get("boundary"));
+    }
+
+    @Test
+    public void should_accept_any_media_type_if_no_accept_header() {
+        Assertions.assertSame(ContentNegotiation.ANY, ContentNegotiation.accept(new String[0]));
+        Assertions.assertSame(ContentNegotiation.ANY, ContentNegotiation.accept(" "));
+    }
+
+    @Test
+    public void should_parse_same_accept_header_once() {
+        String header = "application/xml, application/json;q=0.8";
+
+        Assertions.assertSame(ContentNegotiation.accept(header), ContentNegotiation.accept(new String[]{header}));
+    }
+
+    @Test
+    public void should_join_multiple_accept_headers() {
+        List<MediaType> accepted = ContentNegotiation.accept(new String[]{"text/plain;q=0.5", "application/json"});
+
+        Assertions.assertEquals(List.of("json", "plain"), accepted.stream().map(MediaType::getSubtype).toList());
+    }
+}
@@ -1,10 +1,25 @@
 package restful.tdd;
 
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.ParamConverter;
+import jakarta.ws.rs.ext.ParamConverterProvider;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.UUID;
 
 public class ConverterTest {
     @Test
@@ -26,6 +41,212 @@ public class ConverterTest {
     public void should_not_convert_if_no_converter_factory() {
         Assertions.assertEquals(Optional.empty(), ConverterFactory.convert(NoConverter.class, "Factory"));
     }
+
+    @Test
+    public void should_convert_via_from_string_factory() {
+        UUID uuid = UUID.randomUUID();
+
+        Assertions.assertEquals(Optional.of(uuid), ConverterFactory.convert(UUID.class, uuid.toString()));
+    }
+
+    @Test
+    public void should_resolve_converter_once_per_type() {
+        Assertions.assertSame(Converters.DEFAULT.converter(BigDecimal.class).get(), Converters.DEFAULT.converter(BigDecimal.class).get());
+    }
+
+    @Test
+    public void should_cache_missing_converter() {
+        Assertions.assertSame(Converters.DEFAULT.converter(NoConverter.class), Converters.DEFAULT.converter(NoConverter.class));
+        Assertions.assertTrue(Converters.DEFAULT.converter(NoConverter.class).isEmpty());
+    }
+
+    @Test
+    public void should_use_registered_param_converter_provider() {
+        Converters converters = Converters.DEFAULT.with(new ParamConverterProvider() {
+            @Override
+            public <T> ParamConverter<T> getConverter(Class<T> rawType, Type genericType, Annotation[] annotations) {
+                if (rawType != UserId.class) return null;
+                return (ParamConverter<T>) new ParamConverter<UserId>() {
+                    @Override
+                    public UserId fromString(String value) {
+                        return new UserId(Long.parseLong(value.substring(2)));
+                    }
+
+                    @Override
+                    public String toString(UserId value) {
+                        return "u-" + value.id();
+                    }
+                };
+            }
+        });
+
+        Assertions.assertEquals(new UserId(42), converters.converter(UserId.class).get().fromString(List.of("u-42")));
+        Assertions.assertTrue(Converters.DEFAULT.converter(UserId.class).isEmpty());
+    }
+
+    @Test
+    public void should_convert_multiple_values_to_list() throws NoSuchMethodException {
+        Assertions.assertEquals(List.of(1L, 2L, 2L), converter("list").fromString(List.of("1", "2", "2")));
+    }
+
+    @Test
+    public void should_convert_multiple_values_to_set() throws NoSuchMethodException {
+        Assertions.assertEquals(Set.of("a", "b"), converter("set").fromString(List.of("a", "b", "a")));
+    }
+
+    @Test
+    public void should_convert_multiple_values_to_sorted_set() throws NoSuchMethodException {
+        Object result = converter("sortedSet").fromString(List.of("3", "1", "2"));
+
+        Assertions.assertInstanceOf(SortedSet.class, result);
+        Assertions.assertEquals(List.of(1, 2, 3), List.copyOf((SortedSet<?>) result));
+    }
+
+    @Test
+    public void should_signal_bad_request_if_primitive_can_not_be_converted() {
+        DefaultResourceMethod.ValueConverter<?> converter = PrimitiveConverter.converter(int.class).get();
+
+        Assertions.assertSame(RouteSignal.BAD_REQUEST, Assertions.assertThrows(RouteSignal.class, () -> converter.fromString(List.of("one"))));
+        Assertions.assertSame(RouteSignal.BAD_REQUEST, Assertions.assertThrows(RouteSignal.class, () -> converter.fromString(List.of("-"))));
+        Assertions.assertSame(RouteSignal.BAD_REQUEST, Assertions.assertThrows(RouteSignal.class, () -> converter.fromString(List.of("4294967296"))));
+        Assertions.assertEquals(-12, converter.fromString(List.of("-12")));
+    }
+
+    @Test
+    public void should_signal_bad_request_if_converter_constructor_rejects_value() {
+        DefaultResourceMethod.ValueConverter<?> converter = ConverterConstructor.converter(BigDecimal.class).get();
+
+        Assertions.assertSame(RouteSignal.BAD_REQUEST, Assertions.assertThrows(RouteSignal.class, () -> converter.fromString(List.of("one"))));
+    }
+
+    @Test
+    public void should_signal_bad_request_if_converter_factory_rejects_value() {
+        DefaultResourceMethod.ValueConverter<?> converter = ConverterFactory.converter(UUID.class).get();
+
+        Assertions.assertSame(RouteSignal.BAD_REQUEST, Assertions.assertThrows(RouteSignal.class, () -> converter.fromString(List.of("not-a-uuid"))));
+    }
+
+    @Test
+    public void should_keep_web_application_exception_thrown_by_converter_constructor() {
+        DefaultResourceMethod.ValueConverter<?> converter = ConverterConstructor.converter(Strict.class).get();
+
+        Assertions.assertSame(Strict.REJECTED, Assertions.assertThrows(WebApplicationException.class, () -> converter.fromString(List.of("x"))).getResponse());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_signal_bad_request_if_param_converter_rejects_value() {
+        Converters converters = Converters.DEFAULT.with(new ParamConverterProvider() {
+            @Override
+            public <T> ParamConverter<T> getConverter(Class<T> rawType, Type genericType, Annotation[] annotations) {
+                if (rawType != Sku.class) return null;
+                return (ParamConverter<T>) new ParamConverter<Sku>() {
+                    @Override
+                    public Sku fromString(String value) {
+                        if (!value.startsWith("sku-")) throw new IllegalArgumentException(value);
+                        return new Sku(value);
+                    }
+
+                    @Override
+                    public String toString(Sku value) {
+                        return value.code();
+                    }
+                };
+            }
+        });
+        DefaultResourceMethod.ValueConverter<?> converter = converters.converter(Sku.class).get();
+
+        Assertions.assertEquals(new Sku("sku-1"), converter.fromString(List.of("sku-1")));
+        Assertions.assertSame(RouteSignal.BAD_REQUEST, Assertions.assertThrows(RouteSignal.class, () -> converter.fromString(List.of("1"))));
+    }
+
+    @Test
+    public void should_not_convert_collection_of_type_without_converter() throws NoSuchMethodException {
+        Assertions.assertTrue(CollectionConverter.converter(Collections.class.getMethod("noConverter", List.class).getGenericParameterTypes()[0], Converters.DEFAULT).isEmpty());
+    }
+
+    @Test
+    public void should_resolve_parameter_converter_per_registry() throws NoSuchMethodException {
+        MethodInvoker.ParameterBinder binder = MethodInvoker.ParameterBinder.of(Collections.class.getMethod("order", OrderId.class).getParameters()[0]);
+        Assertions.assertNull(binder.converter(Converters.DEFAULT));
+
+        Converters converters = orders();
+
+        Assertions.assertEquals(new OrderId(7), binder.converter(converters).fromString(List.of("o-7")));
+        Assertions.assertNull(binder.converter(Converters.DEFAULT));
+    }
+
+    @Test
+    public void should_bind_arguments_with_converters_of_uri_info_builder() throws NoSuchMethodException {
+        UriInfoBuilder builder = Mockito.mock(UriInfoBuilder.class);
+        Mockito.when(builder.getConverters()).thenReturn(orders());
+        UriInfo uriInfo = Mockito.mock(UriInfo.class);
+        Mockito.when(uriInfo.getQueryParameters()).thenReturn(new MultivaluedHashMap<>(Map.of("order", "o-7")));
+        MethodInvoker invoker = new MethodInvoker(Collections.class.getMethod("order", OrderId.class));
+
+        Assertions.assertArrayEquals(new Object[]{new OrderId(7)}, invoker.arguments(null, uriInfo, MethodInvoker.converters(builder)));
+    }
+
+    @Test
+    public void should_use_default_converters_if_uri_info_builder_provides_none() {
+        Assertions.assertSame(Converters.DEFAULT, MethodInvoker.converters(Mockito.mock(UriInfoBuilder.class)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Converters orders() {
+        return Converters.DEFAULT.with(new ParamConverterProvider() {
+            @Override
+            public <T> ParamConverter<T> getConverter(Class<T> rawType, Type genericType, Annotation[] annotations) {
+                if (rawType != OrderId.class) return null;
+                return (ParamConverter<T>) new ParamConverter<OrderId>() {
+                    @Override
+                    public OrderId fromString(String value) {
+                        return new OrderId(Long.parseLong(value.substring(2)));
+                    }
+
+                    @Override
+                    public String toString(OrderId value) {
+                        return "o-" + value.id();
+                    }
+                };
+            }
+        });
+    }
+
+    private static DefaultResourceMethod.ValueConverter<?> converter(String name) throws NoSuchMethodException {
+        for (java.lang.reflect.Method method : Collections.class.getMethods())
+            if (method.getName().equals(name)) return CollectionConverter.converter(method.getGenericParameterTypes()[0], Converters.DEFAULT).get();
+        throw new NoSuchMethodException(name);
+    }
+
+    interface Collections {
+        void list(List<Long> values);
+
+        void set(Set<String> values);
+
+        void sortedSet(SortedSet<Integer> values);
+
+        void noConverter(List<NoConverter> values);
+
+        void order(@QueryParam("order") OrderId order);
+    }
+
+    record UserId(long id) {
+    }
+
+    record OrderId(long id) {
+    }
+
+    record Sku(String code) {
+    }
+
+    public static class Strict {
+        static final Response REJECTED = Mockito.mock(Response.class);
+
+        public Strict(String value) {
+            throw new WebApplicationException(value, REJECTED);
+        }
+    }
 }
 
 class NoConverter {
@@ -91,6 +91,24 @@ public class DefaultResourceMethodTest extends InjectableCallerTest {
         @GET
         String getPathParam(@PathParam("param") boolean value);
 
+        @GET
+        String getPathParam(@PathParam("param") long value);
+
+        @GET
+        String getPathParam(@PathParam("param") Long value);
+
+        @GET
+        String getPathParam(@PathParam("param") Integer value);
+
+        @GET
+        String getPathParam(@PathParam("param") double value);
+
+        @GET
+        String getPathParam(@PathParam("param") char value);
+
+        @GET
+        String getPathParam(@PathParam("param") Character value);
+
         @GET
         String getPathParam(@PathParam("param") BigDecimal value);
 
@@ -118,6 +136,24 @@ public class DefaultResourceMethodTest extends InjectableCallerTest {
         @GET
         String getQueryParam(@QueryParam("param") boolean value);
 
+        @GET
+        String getQueryParam(@QueryParam("param") long value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") Long value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") Integer value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") double value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") char value);
+
+        @GET
+        String getQueryParam(@QueryParam("param") Character value);
+
         @GET
         String getQueryParam(@QueryParam("param") BigDecimal value);
 
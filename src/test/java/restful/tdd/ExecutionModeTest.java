@@ -0,0 +1,256 @@
+package restful.tdd;
+
+import jakarta.servlet.Servlet;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class ExecutionModeTest {
+    private final AtomicBoolean rejecting = new AtomicBoolean();
+    private ExecutorService executor;
+    private Providers providers;
+    private Server server;
+    private int port;
+
+    @BeforeEach
+    public void start() throws Exception {
+        start(true);
+    }
+
+    private void start(boolean asyncSupported) throws Exception {
+        ServletHolder holder = new ServletHolder(getServlet());
+        holder.setAsyncSupported(asyncSupported);
+        stubProviders();
+
+        server = new Server();
+        ServerConnector connector = new ServerConnector(server);
+        connector.setPort(0);
+        server.addConnector(connector);
+
+        ServletContextHandler handler = new ServletContextHandler(server, "/");
+        handler.addServlet(holder, "/");
+        server.setHandler(handler);
+        server.start();
+        port = connector.getLocalPort();
+    }
+
+    private Servlet getServlet() {
+        Runtime runtime = Mockito.mock(Runtime.class);
+        providers = Mockito.mock(Providers.class);
+        ResourceContext context = Mockito.mock(ResourceContext.class);
+        ResourceRouter router = new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Threads.class)));
+
+        when(runtime.getResourceRouter()).thenReturn(router);
+        when(runtime.createUriInfoBuilder(any())).thenAnswer(i -> new StubUriInfoBuilder());
+        when(runtime.createResourceContext(any(), any())).thenReturn(context);
+        when(runtime.getProviders()).thenReturn(providers);
+        when(runtime.getAsyncTimeout()).thenReturn(200L);
+        when(context.getResource(eq(Threads.class))).thenReturn(new Threads());
+
+        executor = Executors.newCachedThreadPool(task -> new Thread(task, "handoff"));
+        return new ResourceServlet(runtime, task -> {
+            if (rejecting.get()) throw new RejectedExecutionException();
+            executor.execute(task);
+        });
+    }
+
+    private void stubProviders() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenAnswer(i -> new StubResponseBuilder());
+        when(providers.getMessageBodyWriter(eq(String.class), eq(String.class), any(), any())).thenReturn(new MessageBodyWriter<>() {
+            @Override
+            public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+                return true;
+            }
+
+            @Override
+            public void writeTo(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) {
+                try {
+                    entityStream.write((s + "/" + Thread.currentThread().getName()).getBytes(StandardCharsets.UTF_8));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    public void shutdown() throws Exception {
+        server.stop();
+        executor.shutdownNow();
+    }
+
+    private HttpResponse<String> get(String path) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+            return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void should_invoke_resource_method_and_write_body_on_executor_thread() {
+        HttpResponse<String> response = get("/threads");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("handoff/handoff", response.body());
+    }
+
+    @Test
+    public void should_map_exception_thrown_on_executor_thread() {
+        Assertions.assertEquals(409, get("/threads/conflict").statusCode());
+    }
+
+    @Test
+    public void should_resume_completion_stage_returned_on_executor_thread() {
+        HttpResponse<String> response = get("/threads/stage");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.body().startsWith("staged/"));
+    }
+
+    @Test
+    public void should_not_apply_async_timeout_to_blocking_resource_method() {
+        HttpResponse<String> response = get("/threads/slow");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("slow/handoff", response.body());
+    }
+
+    @Test
+    public void should_apply_async_timeout_to_completion_stage_returned_on_executor_thread() {
+        Assertions.assertEquals(503, get("/threads/never").statusCode());
+    }
+
+    @Test
+    public void should_not_apply_async_timeout_to_suspended_async_response() {
+        HttpResponse<String> response = get("/threads/suspended");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.body().startsWith("resumed/"));
+    }
+
+    @Test
+    public void should_return_503_if_executor_rejected_request() {
+        rejecting.set(true);
+
+        Assertions.assertEquals(503, get("/threads").statusCode());
+    }
+
+    @Test
+    public void should_invoke_resource_method_on_container_thread_if_async_not_supported() throws Exception {
+        shutdown();
+        start(false);
+
+        HttpResponse<String> response = get("/threads");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertFalse(response.body().contains("handoff"));
+    }
+
+    @Test
+    public void should_use_platform_threads_by_default() {
+        Runtime runtime = Mockito.mock(Runtime.class, Mockito.CALLS_REAL_METHODS);
+
+        Assertions.assertEquals(ExecutionMode.PLATFORM, runtime.getExecutionMode());
+        Assertions.assertTrue(ExecutionMode.PLATFORM.executor().isEmpty());
+    }
+
+    @Test
+    public void should_fail_if_virtual_threads_not_supported_by_jvm() {
+        Assertions.assertEquals(java.lang.Runtime.version().feature() >= 21, VirtualThreads.isSupported());
+        if (VirtualThreads.isSupported())
+            Assertions.assertTrue(ExecutionMode.VIRTUAL.executor().isPresent());
+        else
+            Assertions.assertThrows(IllegalStateException.class, ExecutionMode.VIRTUAL::executor);
+    }
+
+    @Test
+    public void should_not_fall_back_to_platform_threads_if_virtual_mode_requested() {
+        Assumptions.assumeFalse(VirtualThreads.isSupported());
+        Runtime runtime = Mockito.mock(Runtime.class);
+        when(runtime.getExecutionMode()).thenReturn(ExecutionMode.VIRTUAL);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> new ResourceServlet(runtime));
+    }
+
+    @Path("/threads")
+    public static class Threads {
+        @GET
+        public String name() {
+            return Thread.currentThread().getName();
+        }
+
+        @GET
+        @Path("/conflict")
+        public String conflict() {
+            throw new WebApplicationException(409);
+        }
+
+        @GET
+        @Path("/slow")
+        public String slow() throws InterruptedException {
+            Thread.sleep(500);
+            return "slow";
+        }
+
+        @GET
+        @Path("/never")
+        public CompletionStage<String> never() {
+            return new CompletableFuture<>();
+        }
+
+        @GET
+        @Path("/suspended")
+        public void suspended(@Suspended AsyncResponse response) {
+            CompletableFuture.delayedExecutor(400, TimeUnit.MILLISECONDS).execute(() -> response.resume("resumed"));
+        }
+
+        @GET
+        @Path("/stage")
+        public CompletionStage<String> stage() {
+            return CompletableFuture.supplyAsync(() -> "staged");
+        }
+    }
+}
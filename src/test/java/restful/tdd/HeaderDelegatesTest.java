@@ -0,0 +1,111 @@
+package restful.tdd;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class HeaderDelegatesTest {
+    private RuntimeDelegate delegate;
+
+    @BeforeEach
+    public void before() {
+        delegate = mockDelegate();
+        RuntimeDelegate.setInstance(delegate);
+    }
+
+    private static RuntimeDelegate mockDelegate() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        when(delegate.createHeaderDelegate(eq(MediaType.class))).thenReturn(new RuntimeDelegate.HeaderDelegate<MediaType>() {
+            @Override
+            public MediaType fromString(String value) {
+                return null;
+            }
+
+            @Override
+            public String toString(MediaType value) {
+                return value.getType() + "/" + value.getSubtype();
+            }
+        });
+        return delegate;
+    }
+
+    @Test
+    public void should_not_use_delegate_for_string_and_number() {
+        Assertions.assertEquals("no-cache", HeaderDelegates.toString("no-cache"));
+        Assertions.assertEquals("42", HeaderDelegates.toString(42));
+        Assertions.assertEquals("2.5", HeaderDelegates.toString(2.5));
+
+        verify(delegate, never()).createHeaderDelegate(any());
+    }
+
+    @Test
+    public void should_resolve_delegate_once_per_type() {
+        Assertions.assertEquals("text/plain", HeaderDelegates.toString(MediaType.TEXT_PLAIN_TYPE));
+        Assertions.assertEquals("application/json", HeaderDelegates.toString(MediaType.APPLICATION_JSON_TYPE));
+
+        verify(delegate, times(1)).createHeaderDelegate(eq(MediaType.class));
+    }
+
+    @Test
+    public void should_resolve_delegate_again_if_runtime_delegate_replaced() {
+        HeaderDelegates.toString(MediaType.TEXT_PLAIN_TYPE);
+        RuntimeDelegate replaced = mockDelegate();
+        RuntimeDelegate.setInstance(replaced);
+
+        Assertions.assertEquals("text/plain", HeaderDelegates.toString(MediaType.TEXT_PLAIN_TYPE));
+        verify(replaced).createHeaderDelegate(eq(MediaType.class));
+    }
+
+    @Test
+    public void should_not_cache_failed_delegate_lookup() {
+        RuntimeDelegate failing = Mockito.mock(RuntimeDelegate.class);
+        when(failing.createHeaderDelegate(eq(MediaType.class))).thenThrow(IllegalArgumentException.class).thenReturn(null);
+        RuntimeDelegate.setInstance(failing);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> HeaderDelegates.of(MediaType.class));
+        HeaderDelegates.of(MediaType.class);
+        verify(failing, times(2)).createHeaderDelegate(eq(MediaType.class));
+    }
+
+    @Test
+    public void should_encode_constant_header_once() {
+        EncodedHeader header = EncodedHeader.of(MediaType.TEXT_PLAIN_TYPE);
+
+        Assertions.assertEquals("text/plain", HeaderDelegates.toString(header));
+        Assertions.assertEquals("text/plain", HeaderDelegates.toString(header));
+        verify(delegate, times(1)).createHeaderDelegate(eq(MediaType.class));
+    }
+
+    @Test
+    public void should_render_produced_media_type_once_per_runtime_delegate() {
+        RenderedMediaType type = new RenderedMediaType(MediaType.TEXT_PLAIN_TYPE);
+        RuntimeDelegate.HeaderDelegate<MediaType> header = delegate.createHeaderDelegate(MediaType.class);
+        RuntimeDelegate.HeaderDelegate<MediaType> spied = spy(header);
+        when(delegate.createHeaderDelegate(eq(MediaType.class))).thenReturn(spied);
+
+        Assertions.assertEquals("text/plain", HeaderDelegates.toString(type));
+        Assertions.assertEquals("text/plain", HeaderDelegates.toString(type));
+        verify(spied, times(1)).toString(any());
+
+        RuntimeDelegate replaced = mockDelegate();
+        RuntimeDelegate.setInstance(replaced);
+        Assertions.assertEquals("text/plain", HeaderDelegates.toString(type));
+        verify(replaced).createHeaderDelegate(eq(MediaType.class));
+    }
+
+    @Test
+    public void should_produce_pre_rendered_media_type_for_negotiated_resource_method() {
+        ResourceRouter.ResourceMethod method = new ResourceMethods(ResourceMethodsTest.Representations.class.getMethods())
+                .findResourceMethods("", "GET", null, ContentNegotiation.accept(MediaType.APPLICATION_JSON)).get();
+
+        Assertions.assertInstanceOf(RenderedMediaType.class, method.getMediaType());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, method.getMediaType());
+    }
+}
@@ -91,6 +91,12 @@ public abstract class InjectableCallerTest {
                 new InjectableTpeTestCase(short.class, "323", (short) 323),
                 new InjectableTpeTestCase(byte.class, "42", (byte) 42),
                 new InjectableTpeTestCase(boolean.class, "true", true),
+                new InjectableTpeTestCase(long.class, "9876543210", 9876543210L),
+                new InjectableTpeTestCase(Long.class, "9876543210", 9876543210L),
+                new InjectableTpeTestCase(Integer.class, "42", 42),
+                new InjectableTpeTestCase(double.class, "2.5", 2.5),
+                new InjectableTpeTestCase(char.class, "c", 'c'),
+                new InjectableTpeTestCase(Character.class, "c", 'c'),
                 new InjectableTpeTestCase(Converter.class, "Factory", Converter.Factory),
                 new InjectableTpeTestCase(BigDecimal.class, "314", new BigDecimal("314"))
         );
@@ -0,0 +1,133 @@
+package restful.tdd;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+public class InvokerTest {
+
+    @ParameterizedTest(name = "{2}")
+    @CsvSource(textBlock = """
+            get,        LAMBDA,             method without parameter
+            concat,     LAMBDA,             method with parameters
+            sum,        LAMBDA,             method with primitive parameters
+            all,        METHOD_HANDLE,      method with more parameters than lambda arity
+            post,       METHOD_HANDLE,      void method
+            """)
+    public void should_choose_invoker_mode_by_method(String name, Invoker.Mode mode, String context) {
+        Assertions.assertEquals(mode, Invoker.of(method(Resource.class, name)).mode());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(textBlock = """
+            LAMBDA
+            METHOD_HANDLE
+            REFLECTION
+            """)
+    public void should_invoke_method_with_arguments(Invoker.Mode mode) throws Exception {
+        Invoker invoker = invoker(method(Resource.class, "sum"), mode);
+
+        Assertions.assertEquals(3, invoker.invoke(new Resource(), new Object[]{1, 2}));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(textBlock = """
+            METHOD_HANDLE
+            REFLECTION
+            """)
+    public void should_return_null_for_void_method(Invoker.Mode mode) throws Exception {
+        Resource resource = new Resource();
+
+        Assertions.assertNull(invoker(method(Resource.class, "post"), mode).invoke(resource, new Object[]{"posted"}));
+        Assertions.assertEquals("posted", resource.posted);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(textBlock = """
+            LAMBDA
+            METHOD_HANDLE
+            REFLECTION
+            """)
+    public void should_wrap_exception_thrown_by_method(Invoker.Mode mode) {
+        Invoker invoker = invoker(method(Resource.class, "fail"), mode);
+
+        InvocationTargetException exception = Assertions.assertThrows(InvocationTargetException.class, () -> invoker.invoke(new Resource(), new Object[0]));
+        Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(textBlock = """
+            LAMBDA
+            METHOD_HANDLE
+            """)
+    public void should_not_wrap_error_thrown_by_method(Invoker.Mode mode) {
+        Invoker invoker = invoker(method(Resource.class, "crash"), mode);
+
+        Assertions.assertThrows(StackOverflowError.class, () -> invoker.invoke(new Resource(), new Object[0]));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(textBlock = """
+            LAMBDA
+            METHOD_HANDLE
+            """)
+    public void should_wrap_checked_exception_thrown_by_method(Invoker.Mode mode) {
+        Invoker invoker = invoker(method(Resource.class, "read"), mode);
+
+        InvocationTargetException exception = Assertions.assertThrows(InvocationTargetException.class, () -> invoker.invoke(new Resource(), new Object[0]));
+        Assertions.assertInstanceOf(IOException.class, exception.getCause());
+    }
+
+    private static Invoker invoker(Method method, Invoker.Mode mode) {
+        return switch (mode) {
+            case LAMBDA -> Invokers.lambda(method).get();
+            case METHOD_HANDLE -> Invokers.handle(method).get();
+            case REFLECTION -> Invoker.reflection(method);
+        };
+    }
+
+    private static Method method(Class<?> type, String name) {
+        for (Method method : type.getMethods()) if (method.getName().equals(name)) return method;
+        throw new IllegalArgumentException(name);
+    }
+
+    public static class Resource {
+        private String posted;
+
+        public String get() {
+            return "get";
+        }
+
+        public String concat(String a, String b) {
+            return a + b;
+        }
+
+        public int sum(int a, int b) {
+            return a + b;
+        }
+
+        public String all(String a, String b, String c, String d) {
+            return a + b + c + d;
+        }
+
+        public void post(String value) {
+            posted = value;
+        }
+
+        public String fail() {
+            throw new IllegalStateException();
+        }
+
+        public String crash() {
+            throw new StackOverflowError();
+        }
+
+        public String read() throws IOException {
+            throw new IOException();
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package restful.tdd;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LocatorCacheTest {
+    private ResourceContext context;
+    private Users users;
+    private MethodInvoker invoker;
+    private AtomicLong clock;
+
+    @BeforeEach
+    public void before() throws NoSuchMethodException {
+        context = Mockito.mock(ResourceContext.class);
+        users = new Users();
+        invoker = new MethodInvoker(Users.class.getMethod("findUserById", String.class));
+        clock = new AtomicLong();
+    }
+
+    @Test
+    public void should_invoke_locator_once_for_same_path_parameters() {
+        LocatorCache cache = new LocatorCache(16, 100, clock::get);
+
+        Object first = cache.locate(invoker, context, builder("1"), true);
+        Object second = cache.locate(invoker, context, builder("1"), true);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, users.calls);
+        Assertions.assertEquals(1, cache.hits());
+        Assertions.assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void should_invoke_locator_for_different_path_parameters() {
+        LocatorCache cache = new LocatorCache(16, 100, clock::get);
+
+        cache.locate(invoker, context, builder("1"), true);
+        cache.locate(invoker, context, builder("2"), true);
+
+        Assertions.assertEquals(2, users.calls);
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void should_invoke_locator_again_after_ttl() {
+        LocatorCache cache = new LocatorCache(16, 100, clock::get);
+
+        Object first = cache.locate(invoker, context, builder("1"), true);
+        clock.addAndGet(100);
+        Object second = cache.locate(invoker, context, builder("1"), true);
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(2, users.calls);
+        Assertions.assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void should_evict_least_recently_used_entries_above_maximum_size() {
+        LocatorCache cache = new LocatorCache(1, 100, clock::get);
+
+        cache.locate(invoker, context, builder("1"), true);
+        cache.locate(invoker, context, builder("2"), true);
+        cache.locate(invoker, context, builder("1"), true);
+
+        Assertions.assertEquals(3, users.calls);
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void should_not_cache_null_sub_resource() {
+        LocatorCache cache = new LocatorCache(16, 100, clock::get);
+
+        Assertions.assertNull(cache.locate(invoker, context, builder("0"), true));
+        Assertions.assertNull(cache.locate(invoker, context, builder("0"), true));
+
+        Assertions.assertEquals(2, users.calls);
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void should_memoize_only_annotated_sub_resource_locators() throws NoSuchMethodException {
+        Assertions.assertTrue(new SubResourceLocators.SubResourceLocator(Users.class.getMethod("findUserById", String.class)).getCache().isPresent());
+        Assertions.assertTrue(new SubResourceLocators.SubResourceLocator(Users.class.getMethod("findOrders", String.class)).getCache().isEmpty());
+    }
+
+    @Test
+    public void should_skip_locator_for_repeated_requests_through_root_resource() {
+        Mockito.when(context.getResource(Users.class)).thenReturn(users);
+        RootResourceHandler root = new RootResourceHandler(Users.class);
+
+        for (int i = 0; i < 3; i++) {
+            UriTemplate.MatchResult result = root.getUriTemplate().match("/users/1").get();
+            Assertions.assertTrue(root.match(result, "GET", new String[]{"*/*"}, context, new StubUriInfoBuilder()).isPresent());
+        }
+
+        Assertions.assertEquals(1, users.calls);
+    }
+
+    @Test
+    public void should_not_share_sub_resources_between_instances_of_same_resource_class() {
+        Users other = new Users();
+        LocatorCache cache = new LocatorCache(16, 100, clock::get);
+
+        Object own = cache.locate(invoker, context, builder("1"), true);
+        Object others = cache.locate(invoker, context, builder(other, "1"), true);
+
+        Assertions.assertNotSame(own, others);
+        Assertions.assertEquals(1, users.calls);
+        Assertions.assertEquals(1, other.calls);
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void should_route_each_root_instance_to_its_own_sub_resource() {
+        RootResourceHandler t1 = new RootResourceHandler(new Tenant("t1"), PathTemplate.of("/t1"));
+        RootResourceHandler t2 = new RootResourceHandler(new Tenant("t2"), PathTemplate.of("/t2"));
+
+        Assertions.assertEquals("t1", tenantOf(t1, "/t1/users/1"));
+        Assertions.assertEquals("t2", tenantOf(t2, "/t2/users/1"));
+        Assertions.assertEquals("t1", tenantOf(t1, "/t1/users/1"));
+    }
+
+    @Test
+    public void should_use_query_parameters_as_part_of_key() throws NoSuchMethodException {
+        MethodInvoker invoker = new MethodInvoker(Users.class.getMethod("search", String.class));
+        LocatorCache cache = new LocatorCache(16, 100, clock::get);
+
+        Object first = cache.locate(invoker, context, query("a"), true);
+        Object second = cache.locate(invoker, context, query("b"), true);
+        Object third = cache.locate(invoker, context, query("a"), true);
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(first, third);
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void should_share_sub_resources_between_per_request_instances_of_resource_class() {
+        List<Users> created = new ArrayList<>();
+        Mockito.when(context.getResource(Users.class)).thenAnswer(i -> {
+            Users users = new Users();
+            created.add(users);
+            return users;
+        });
+        RootResourceHandler root = new RootResourceHandler(Users.class);
+
+        for (int i = 0; i < 3; i++) {
+            UriTemplate.MatchResult result = root.getUriTemplate().match("/users/per-request").get();
+            Assertions.assertTrue(root.match(result, "GET", new String[]{"*/*"}, context, new StubUriInfoBuilder()).isPresent());
+        }
+
+        Assertions.assertEquals(3, created.size());
+        Assertions.assertEquals(1, created.stream().mapToInt(users -> users.calls).sum());
+    }
+
+    @Test
+    public void should_not_share_sub_resources_of_per_request_instances_located_through_other_path_parameters() {
+        LocatorCache cache = new LocatorCache(16, 100, clock::get);
+        StubUriInfoBuilder first = builder(new Users(), "1");
+        first.addMatchedPathParameters(Map.of("tenant", "t1"));
+        StubUriInfoBuilder second = builder(new Users(), "1");
+        second.addMatchedPathParameters(Map.of("tenant", "t2"));
+
+        Assertions.assertNotSame(cache.locate(invoker, context, first, false), cache.locate(invoker, context, second, false));
+        Assertions.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void should_bind_arguments_once_on_miss() throws NoSuchMethodException {
+        MethodInvoker invoker = new MethodInvoker(Users.class.getMethod("findByKey", Key.class));
+        LocatorCache cache = new LocatorCache(16, 100, clock::get);
+        StubUriInfoBuilder builder = new StubUriInfoBuilder();
+        builder.addMatchedResult(users);
+        builder.addMatchedPathParameters(Map.of("key", "k"));
+        Key.conversions = 0;
+
+        cache.locate(invoker, context, builder, true);
+
+        Assertions.assertEquals(1, Key.conversions);
+    }
+
+    @Test
+    public void should_purge_expired_entries_on_insert() {
+        LocatorCache cache = new LocatorCache(16, 100, clock::get);
+
+        cache.locate(invoker, context, builder("1"), true);
+        cache.locate(invoker, context, builder("2"), true);
+        clock.addAndGet(100);
+        cache.locate(invoker, context, builder("3"), true);
+
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void should_not_memoize_locator_taking_context_arguments() throws NoSuchMethodException {
+        Method method = Invalid.class.getMethod("find", UriInfo.class);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SubResourceLocators.SubResourceLocator(method));
+    }
+
+    private String tenantOf(RootResourceHandler root, String path) {
+        StubUriInfoBuilder builder = new StubUriInfoBuilder();
+        UriTemplate.MatchResult result = root.getUriTemplate().match(path).get();
+        Assertions.assertTrue(root.match(result, "GET", new String[]{"*/*"}, context, builder).isPresent());
+        return ((Account) builder.getLastMatchedResource()).tenant;
+    }
+
+    private UriInfoBuilder query(String name) {
+        UriInfoBuilder builder = Mockito.mock(UriInfoBuilder.class);
+        UriInfo uriInfo = Mockito.mock(UriInfo.class);
+        Mockito.when(builder.createUriInfo()).thenReturn(uriInfo);
+        Mockito.when(builder.getLastMatchedResource()).thenReturn(users);
+        Mockito.when(uriInfo.getQueryParameters()).thenReturn(new MultivaluedHashMap<>(Map.of("name", name)));
+        return builder;
+    }
+
+    private StubUriInfoBuilder builder(String id) {
+        return builder(users, id);
+    }
+
+    private StubUriInfoBuilder builder(Users users, String id) {
+        StubUriInfoBuilder builder = new StubUriInfoBuilder();
+        builder.addMatchedResult(users);
+        builder.addMatchedPathParameters(Map.of("id", id));
+        return builder;
+    }
+
+    @Path("/users")
+    public static class Users {
+        int calls;
+
+        @Memoized
+        @Path("/{id}")
+        public User findUserById(@PathParam("id") String id) {
+            calls++;
+            return id.equals("0") ? null : new User(id);
+        }
+
+        @Memoized
+        @Path("/search")
+        public User search(@QueryParam("name") String name) {
+            calls++;
+            return new User(name);
+        }
+
+        @Memoized
+        @Path("/keys/{key}")
+        public User findByKey(@PathParam("key") Key key) {
+            calls++;
+            return new User(key.value);
+        }
+
+        @Path("/{id}/orders")
+        public User findOrders(@PathParam("id") String id) {
+            return new User(id);
+        }
+    }
+
+    public static class Key {
+        static int conversions;
+        private final String value;
+
+        private Key(String value) {
+            this.value = value;
+        }
+
+        public static Key valueOf(String value) {
+            conversions++;
+            return new Key(value);
+        }
+    }
+
+    public static class Tenant {
+        private final String name;
+
+        public Tenant(String name) {
+            this.name = name;
+        }
+
+        @Memoized
+        @Path("/users/{id}")
+        public Account user(@PathParam("id") String id) {
+            return new Account(name);
+        }
+    }
+
+    public static class Account {
+        private final String tenant;
+
+        public Account(String tenant) {
+            this.tenant = tenant;
+        }
+
+        @GET
+        public String get() {
+            return tenant;
+        }
+    }
+
+    public static class Invalid {
+        @Memoized
+        @Path("/{id}")
+        public User find(@Context UriInfo uriInfo) {
+            return null;
+        }
+    }
+
+    public static class User {
+        private final String id;
+
+        public User(String id) {
+            this.id = id;
+        }
+
+        @GET
+        public String get() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package restful.tdd;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LruCacheTest {
+
+    @Test
+    public void should_return_cached_value() {
+        LruCache<String, String> cache = new LruCache<>(16);
+        cache.put("key", "value");
+
+        Assertions.assertEquals("value", cache.get("key"));
+        Assertions.assertEquals(1, cache.hits());
+        Assertions.assertEquals(0, cache.misses());
+    }
+
+    @Test
+    public void should_count_miss_if_value_not_cached() {
+        LruCache<String, String> cache = new LruCache<>(16);
+
+        Assertions.assertNull(cache.get("key"));
+        Assertions.assertEquals(0, cache.hits());
+        Assertions.assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void should_remove_values_matching_predicate_from_all_segments() {
+        LruCache<String, Integer> cache = new LruCache<>(1000);
+        for (int i = 0; i < 100; i++) cache.put("key" + i, i);
+
+        cache.removeIf(value -> value % 2 == 0);
+
+        Assertions.assertEquals(50, cache.size());
+        Assertions.assertNull(cache.get("key0"));
+        Assertions.assertEquals(1, cache.get("key1"));
+    }
+
+    @Test
+    public void should_evict_least_recently_used_value_if_exceed_maximum_size() {
+        LruCache<String, String> cache = new LruCache<>(1);
+        cache.put("first", "1");
+        cache.put("second", "2");
+
+        Assertions.assertNull(cache.get("first"));
+        Assertions.assertEquals("2", cache.get("second"));
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void should_keep_size_within_bound() {
+        LruCache<Integer, Integer> cache = new LruCache<>(64);
+        for (int i = 0; i < 10_000; i++) cache.put(i, i);
+
+        Assertions.assertTrue(cache.size() <= 64);
+    }
+
+    @Test
+    public void should_never_hold_more_than_maximum_size() {
+        for (int maximumSize : new int[]{1, 7, 17, 100, 129, 1000}) {
+            LruCache<Integer, Integer> cache = new LruCache<>(maximumSize);
+            for (int i = 0; i < maximumSize * 20; i++) cache.put(i, i);
+
+            Assertions.assertEquals(maximumSize, cache.size(), "maximum size " + maximumSize);
+        }
+    }
+
+    @Test
+    public void should_keep_small_cache_in_single_lru_order() {
+        LruCache<Integer, Integer> cache = new LruCache<>(8);
+        for (int i = 0; i < 8; i++) cache.put(i * 16, i);
+        cache.get(0);
+        cache.put(1000, 1000);
+
+        Assertions.assertEquals(0, cache.get(0));
+        Assertions.assertNull(cache.get(16));
+    }
+
+    @Test
+    public void should_remove_cached_value() {
+        LruCache<String, String> cache = new LruCache<>(16);
+        cache.put("key", "value");
+        cache.remove("key");
+
+        Assertions.assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void should_not_accept_non_positive_maximum_size() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0));
+    }
+}
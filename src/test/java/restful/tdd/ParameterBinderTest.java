@@ -0,0 +1,50 @@
+package restful.tdd;
+
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+
+public class ParameterBinderTest {
+
+    @Test
+    public void should_resolve_source_key_and_converter_for_each_parameter() throws NoSuchMethodException {
+        Method method = Binding.class.getMethod("get", int.class, BigDecimal.class, UriInfo.class, ResourceContext.class, SomeServiceInContext.class);
+        Parameter[] parameters = method.getParameters();
+
+        assertBinder(parameters[0], MethodInvoker.Source.PATH, "id", true);
+        assertBinder(parameters[1], MethodInvoker.Source.QUERY, "amount", true);
+        assertBinder(parameters[2], MethodInvoker.Source.CONTEXT, null, false);
+        assertBinder(parameters[3], MethodInvoker.Source.CONTEXT, null, false);
+        assertBinder(parameters[4], MethodInvoker.Source.RESOURCE, null, false);
+    }
+
+    @Test
+    public void should_not_resolve_converter_if_type_can_not_be_converted() throws NoSuchMethodException {
+        Parameter parameter = Binding.class.getMethod("get", NoConverter.class).getParameters()[0];
+
+        assertBinder(parameter, MethodInvoker.Source.PATH, "value", false);
+    }
+
+    private static void assertBinder(Parameter parameter, MethodInvoker.Source source, String key, boolean converter) {
+        MethodInvoker.ParameterBinder binder = MethodInvoker.ParameterBinder.of(parameter);
+
+        Assertions.assertEquals(source, binder.source());
+        Assertions.assertEquals(key, binder.key());
+        Assertions.assertEquals(converter, binder.converter(Converters.DEFAULT) != null);
+    }
+
+    interface Binding {
+        String get(@PathParam("id") int id, @QueryParam("amount") BigDecimal amount, @Context UriInfo uriInfo,
+                   @Context ResourceContext context, @Context SomeServiceInContext service);
+
+        String get(@PathParam("value") NoConverter value);
+    }
+}
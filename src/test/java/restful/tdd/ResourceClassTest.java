@@ -0,0 +1,69 @@
+package restful.tdd;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class ResourceClassTest {
+
+    @Test
+    public void should_build_metadata_once_per_class() {
+        Assertions.assertSame(ResourceClass.of(Message.class), ResourceClass.of(Message.class));
+        Assertions.assertNotSame(ResourceClass.of(Message.class), ResourceClass.of(Messages.class));
+    }
+
+    @Test
+    public void should_share_metadata_between_sub_resource_handlers() {
+        ResourceClass metadata = ResourceClass.of(Message.class);
+
+        Assertions.assertTrue(new RootResourceHandler(new Message(), new PathTemplate("/{id}")).match(new PathTemplate("/{id}").match("/1").get(),
+                "GET", new String[0], null, new StubUriInfoBuilder()).isPresent());
+        Assertions.assertSame(metadata.getResourceMethods(), ResourceClass.of(new Message().getClass()).getResourceMethods());
+    }
+
+    @Test
+    public void should_return_same_metadata_for_concurrent_lookups() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ResourceClass>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++)
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return ResourceClass.of(Concurrent.class);
+                }));
+            start.countDown();
+
+            for (Future<ResourceClass> future : futures) Assertions.assertSame(ResourceClass.of(Concurrent.class), future.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Path("/messages")
+    static class Messages {
+        @Path("/{id}")
+        public Message get() {
+            return new Message();
+        }
+    }
+
+    static class Message {
+        @GET
+        public String content() {
+            return "content";
+        }
+    }
+
+    static class Concurrent {
+        @GET
+        public String get() {
+            return "concurrent";
+        }
+    }
+}
@@ -38,6 +38,7 @@ public class ResourceDispatcherTest {
         context = Mockito.mock(ResourceContext.class);
         Mockito.when(request.getServletPath()).thenReturn("/users/1");
         Mockito.when(request.getMethod()).thenReturn("GET");
+        Mockito.when(request.getHeader(eq(HttpHeaders.ACCEPT))).thenReturn(MediaType.WILDCARD);
         Mockito.when(request.getHeaders(eq(HttpHeaders.ACCEPT))).thenReturn(new Vector<>(List.of(MediaType.WILDCARD)).elements());
 
         builder = Mockito.mock(UriInfoBuilder.class);
@@ -119,6 +120,32 @@ public class ResourceDispatcherTest {
         Assertions.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
     }
 
+    @Test
+    public void should_read_single_accept_header_without_copying_header_list() {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getHeader(eq(HttpHeaders.ACCEPT))).thenReturn(MediaType.APPLICATION_JSON);
+        Mockito.when(request.getHeaders(eq(HttpHeaders.ACCEPT))).thenReturn(new Vector<>(List.of(MediaType.APPLICATION_JSON)).elements());
+
+        Assertions.assertArrayEquals(new String[]{MediaType.APPLICATION_JSON}, DefaultResourceRouter.mediaTypes(request));
+    }
+
+    @Test
+    public void should_collect_all_accept_headers_if_more_than_one_sent() {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getHeader(eq(HttpHeaders.ACCEPT))).thenReturn(MediaType.APPLICATION_JSON);
+        Mockito.when(request.getHeaders(eq(HttpHeaders.ACCEPT))).thenReturn(new Vector<>(List.of(MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN)).elements());
+
+        Assertions.assertArrayEquals(new String[]{MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN}, DefaultResourceRouter.mediaTypes(request));
+    }
+
+    @Test
+    public void should_not_enumerate_headers_if_no_accept_header_sent() {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+
+        Assertions.assertEquals(0, DefaultResourceRouter.mediaTypes(request).length);
+        Mockito.verify(request, Mockito.never()).getHeaders(any());
+    }
+
     private ResourceRouter.Resource rootResource(StubUriTemplate stub) {
         ResourceRouter.Resource unmatched = Mockito.mock(ResourceRouter.Resource.class);
         Mockito.when(unmatched.getUriTemplate()).thenReturn(stub.uriTemplate);
@@ -12,6 +12,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.Mockito;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 import java.util.Optional;
 import java.util.Set;
 
@@ -102,6 +106,173 @@ public class ResourceMethodsTest {
         Assertions.assertEquals(Set.of(HttpMethod.POST, HttpMethod.OPTIONS), response.getAllowedMethods());
     }
 
+    @Test
+    public void should_reuse_options_response_for_given_uri() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        Mockito.when(delegate.createResponseBuilder()).thenAnswer(i -> new StubResponseBuilder());
+        ResourceContext context = Mockito.mock(ResourceContext.class);
+        UriInfoBuilder builder = Mockito.mock(UriInfoBuilder.class);
+
+        ResourceMethods resourceMethods = new ResourceMethods(Messages.class.getMethods());
+
+        Response first = (Response) resourceMethods.findResourceMethods("/head", "OPTIONS").get().call(context, builder).getEntity();
+        Response second = (Response) resourceMethods.findResourceMethods("/head", "OPTIONS").get().call(context, builder).getEntity();
+
+        Assertions.assertSame(first, second);
+        Mockito.verify(delegate, Mockito.never()).createResponseBuilder();
+    }
+
+    @Test
+    public void should_include_methods_of_all_matched_uris_in_options() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        Mockito.when(delegate.createResponseBuilder()).thenReturn(new StubResponseBuilder());
+        ResourceContext context = Mockito.mock(ResourceContext.class);
+        UriInfoBuilder builder = Mockito.mock(UriInfoBuilder.class);
+
+        ResourceMethods resourceMethods = new ResourceMethods(Messages.class.getMethods());
+
+        Response response = (Response) resourceMethods.findResourceMethods("/topics/1234", "OPTIONS").get().call(context, builder).getEntity();
+
+        Assertions.assertEquals(Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.DELETE, HttpMethod.OPTIONS), response.getAllowedMethods());
+    }
+
+    @Test
+    public void should_reuse_merged_options_response_for_overlapping_uris() {
+        ResourceContext context = Mockito.mock(ResourceContext.class);
+        UriInfoBuilder builder = Mockito.mock(UriInfoBuilder.class);
+
+        ResourceMethods resourceMethods = new ResourceMethods(Messages.class.getMethods());
+
+        ResourceRouter.ResourceMethod first = resourceMethods.findResourceMethods("/topics/1234", "OPTIONS").get();
+        ResourceRouter.ResourceMethod second = resourceMethods.findResourceMethods("/topics/5678", "OPTIONS").get();
+
+        Assertions.assertSame(first, second);
+        Assertions.assertSame(first.call(context, builder).getEntity(), second.call(context, builder).getEntity());
+        Assertions.assertSame(resourceMethods.findNotAllowed("/topics/1234").get(), resourceMethods.findNotAllowed("/topics/5678").get());
+    }
+
+    @Test
+    public void should_only_allow_options_if_no_resource_method_match_given_uri() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        Mockito.when(delegate.createResponseBuilder()).thenReturn(new StubResponseBuilder());
+        ResourceContext context = Mockito.mock(ResourceContext.class);
+        UriInfoBuilder builder = Mockito.mock(UriInfoBuilder.class);
+
+        ResourceMethods resourceMethods = new ResourceMethods(Messages.class.getMethods());
+
+        Response response = (Response) resourceMethods.findResourceMethods("/unknown", "OPTIONS").get().call(context, builder).getEntity();
+
+        Assertions.assertEquals(Set.of(HttpMethod.OPTIONS), response.getAllowedMethods());
+    }
+
+    @ParameterizedTest(name = "{2}")
+    @CsvSource(textBlock = """
+            application/json,                       Representations.json,   exactly accepted
+            'text/plain;q=0.5, application/json',   Representations.json,   accepted with higher quality
+            'text/*',                               Representations.text,   accepted with wildcard subtype
+            'text/plain;q=0, */*',                  Representations.json,   excluded media type wins over wildcard
+            'application/json;q=0, */*',            Representations.text,   excluded media type wins over any order
+            """)
+    public void should_select_resource_method_by_accepted_media_types(String accept, String resourceMethod, String context) {
+        ResourceMethods resourceMethods = new ResourceMethods(Representations.class.getMethods());
+
+        ResourceRouter.ResourceMethod method = resourceMethods.findResourceMethods("", "GET", null, ContentNegotiation.accept(accept)).get();
+
+        Assertions.assertEquals(resourceMethod, method.toString());
+        Assertions.assertTrue(method.getMediaType().isCompatible(ContentNegotiation.parse(accept.substring(accept.lastIndexOf(',') + 1).trim())));
+    }
+
+    @Test
+    public void should_throw_not_acceptable_if_no_resource_method_produces_accepted_media_types() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        Mockito.when(delegate.createResponseBuilder()).thenReturn(new StubResponseBuilder());
+
+        ResourceMethods resourceMethods = new ResourceMethods(Representations.class.getMethods());
+
+        Assertions.assertThrows(NotAcceptableException.class, () -> resourceMethods.findResourceMethods("", "GET", null, ContentNegotiation.accept("image/png")));
+    }
+
+    @Test
+    public void should_select_resource_method_by_content_type() {
+        ResourceMethods resourceMethods = new ResourceMethods(Representations.class.getMethods());
+
+        ResourceRouter.ResourceMethod method = resourceMethods.findResourceMethods("", "POST", ContentNegotiation.parse(MediaType.APPLICATION_JSON), ContentNegotiation.ANY).get();
+
+        Assertions.assertEquals("Representations.create", method.toString());
+    }
+
+    @Test
+    public void should_throw_not_supported_if_no_resource_method_consumes_content_type() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        Mockito.when(delegate.createResponseBuilder()).thenReturn(new StubResponseBuilder());
+
+        ResourceMethods resourceMethods = new ResourceMethods(Representations.class.getMethods());
+
+        Assertions.assertThrows(NotSupportedException.class, () -> resourceMethods.findResourceMethods("", "POST", ContentNegotiation.parse(MediaType.TEXT_PLAIN), ContentNegotiation.ANY));
+    }
+
+    @Test
+    public void should_reuse_head_resource_method_converted_from_get_resource_method() {
+        ResourceMethods resourceMethods = new ResourceMethods(Messages.class.getMethods());
+
+        ResourceRouter.ResourceMethod first = resourceMethods.findResourceMethods("/head", "HEAD").get();
+        ResourceRouter.ResourceMethod second = resourceMethods.findResourceMethods("/head", "HEAD").get();
+
+        Assertions.assertInstanceOf(HeadResourceMethod.class, first);
+        Assertions.assertSame(first, second);
+    }
+
+    @Test
+    public void should_match_resource_method_with_custom_http_method() {
+        ResourceMethods resourceMethods = new ResourceMethods(CustomMethods.class.getMethods());
+
+        ResourceRouter.ResourceMethod method = resourceMethods.findResourceMethods("", "PROPFIND").get();
+
+        Assertions.assertEquals("CustomMethods.properties", method.toString());
+        Assertions.assertTrue(resourceMethods.findResourceMethods("", "GET").isEmpty());
+        Assertions.assertTrue(resourceMethods.findResourceMethods("", "LOCK").isEmpty());
+    }
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @HttpMethod("PROPFIND")
+    @interface PROPFIND {
+    }
+
+    @Path("/custom")
+    static class CustomMethods {
+        @PROPFIND
+        public String properties() {
+            return "properties";
+        }
+    }
+
+    @Path("/representations")
+    static class Representations {
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public String text() {
+            return "text";
+        }
+
+        @GET
+        @Produces(MediaType.APPLICATION_JSON)
+        public String json() {
+            return "json";
+        }
+
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        public String create() {
+            return "create";
+        }
+    }
+
     @Path("/missing-messages")
     static class MissingMessages {
         @GET
@@ -189,6 +360,12 @@ public class ResourceMethodsTest {
             return "topicId";
         }
 
+        @DELETE
+        @Path("/topics/{id}")
+        public String deleteTopicId() {
+            return "deleteTopicId";
+        }
+
         @GET
         @Path("/topics/1234")
         @Produces(MediaType.TEXT_PLAIN)
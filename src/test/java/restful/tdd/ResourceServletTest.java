@@ -85,6 +85,23 @@ public class ResourceServletTest extends ServletTest {
             HttpResponse<String> httpResponse = get("/test");
             assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), httpResponse.statusCode());
         }
+
+        @Test
+        public void should_write_only_status_and_allow_header_for_status_response() throws Exception {
+            when(router.dispatch(any(), eq(resourceContext))).thenReturn(StatusResponse.of(Response.Status.METHOD_NOT_ALLOWED, Set.of("GET", "HEAD")));
+            HttpResponse<String> httpResponse = get("/test");
+            assertEquals(Response.Status.METHOD_NOT_ALLOWED.getStatusCode(), httpResponse.statusCode());
+            assertEquals(Optional.of("GET,HEAD"), httpResponse.headers().firstValue(HttpHeaders.ALLOW));
+            assertEquals("", httpResponse.body());
+            Mockito.verifyNoInteractions(delegate, providers);
+        }
+
+        @Test
+        public void should_respond_with_signal_thrown_by_router() throws Exception {
+            when(router.dispatch(any(), eq(resourceContext))).thenThrow(RouteSignal.BAD_REQUEST);
+            HttpResponse<String> httpResponse = get("/test");
+            assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), httpResponse.statusCode());
+        }
     }
     @TestFactory
     public List<DynamicTest> RespondWhenExtensionMissing() {
@@ -0,0 +1,166 @@
+package restful.tdd;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Vector;
+
+import static org.mockito.ArgumentMatchers.*;
+
+public class RouteCacheTest {
+    private Runtime runtime;
+    private ResourceContext context;
+    private HttpServletRequest request;
+
+    @BeforeEach
+    public void before() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        Mockito.when(delegate.createResponseBuilder()).thenAnswer(i -> new StubResponseBuilder());
+
+        runtime = Mockito.mock(Runtime.class);
+        Mockito.when(runtime.createUriInfoBuilder(any())).thenAnswer(i -> new StubUriInfoBuilder());
+
+        context = Mockito.mock(ResourceContext.class);
+        Mockito.when(context.getResource(eq(Users.class))).thenReturn(new Users());
+        request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getMethod()).thenReturn("GET");
+        Mockito.when(request.getHeader(eq(HttpHeaders.ACCEPT))).thenReturn(MediaType.WILDCARD);
+        Mockito.when(request.getHeaders(eq(HttpHeaders.ACCEPT))).thenAnswer(i -> new Vector<>(List.of(MediaType.WILDCARD)).elements());
+    }
+
+    @Test
+    public void should_cache_matched_route() {
+        RouteCache cache = new RouteCache(16);
+        DefaultResourceRouter router = router(cache);
+
+        Assertions.assertEquals("user 1", dispatch(router, "/users/1"));
+        Assertions.assertEquals("user 1", dispatch(router, "/users/1"));
+
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(1, cache.hits());
+        Assertions.assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void should_replay_sub_resource_locators_for_cached_route() {
+        RouteCache cache = new RouteCache(16);
+        DefaultResourceRouter router = router(cache);
+
+        Assertions.assertEquals("order 2 of user 1", dispatch(router, "/users/1/orders/2"));
+        Assertions.assertEquals("order 2 of user 1", dispatch(router, "/users/1/orders/2"));
+
+        Assertions.assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void should_cache_route_per_path() {
+        RouteCache cache = new RouteCache(16);
+        DefaultResourceRouter router = router(cache);
+
+        Assertions.assertEquals("user 1", dispatch(router, "/users/1"));
+        Assertions.assertEquals("user 2", dispatch(router, "/users/2"));
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(0, cache.hits());
+    }
+
+    @Test
+    public void should_key_route_on_content_type_without_parameters() {
+        RouteCache cache = new RouteCache(16);
+        DefaultResourceRouter router = router(cache);
+
+        Mockito.when(request.getContentType()).thenReturn("application/json; charset=UTF-8");
+        Assertions.assertEquals("user 1", dispatch(router, "/users/1"));
+        Mockito.when(request.getContentType()).thenReturn("Application/JSON;charset=US-ASCII");
+        Assertions.assertEquals("user 1", dispatch(router, "/users/1"));
+
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(1, cache.hits());
+    }
+
+    @Test
+    public void should_not_cache_unmatched_route() {
+        RouteCache cache = new RouteCache(16);
+        DefaultResourceRouter router = router(cache);
+
+        Mockito.when(request.getServletPath()).thenReturn("/customers/1");
+        Assertions.assertEquals(404, router.dispatch(request, context).getStatus());
+
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void should_not_cache_route_with_excluded_sub_resource_locator() {
+        RouteCache cache = new RouteCache(16, locator -> locator.getName().equals("orders"));
+        DefaultResourceRouter router = router(cache);
+
+        Assertions.assertEquals("order 2 of user 1", dispatch(router, "/users/1/orders/2"));
+        Assertions.assertEquals("user 1", dispatch(router, "/users/1"));
+
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void should_match_again_if_sub_resource_locator_returns_different_resource_class() {
+        RouteCache cache = new RouteCache(16);
+        DefaultResourceRouter router = router(cache);
+
+        Assertions.assertEquals("order 2 of user 1", dispatch(router, "/users/1/orders/2"));
+        Assertions.assertEquals("archived order 2", dispatch(router, "/users/0/orders/2"));
+        Assertions.assertEquals("archived order 2", dispatch(router, "/users/0/orders/2"));
+    }
+
+    private DefaultResourceRouter router(RouteCache cache) {
+        return new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Users.class)), cache);
+    }
+
+    private Object dispatch(DefaultResourceRouter router, String path) {
+        Mockito.when(request.getServletPath()).thenReturn(path);
+        return router.dispatch(request, context).getGenericEntity().getEntity();
+    }
+
+    @Path("/users/{id}")
+    public static class Users {
+        @GET
+        public String get(@PathParam("id") String id) {
+            return "user " + id;
+        }
+
+        @Path("/orders/{order}")
+        public Object orders(@PathParam("id") String id) {
+            return id.equals("0") ? new ArchivedOrders() : new Orders(id);
+        }
+    }
+
+    public static class Orders {
+        private final String user;
+
+        public Orders(String user) {
+            this.user = user;
+        }
+
+        @GET
+        public String get(@PathParam("order") String order) {
+            return "order " + order + " of user " + user;
+        }
+    }
+
+    public static class ArchivedOrders {
+        @GET
+        public String get(@PathParam("order") String order) {
+            return "archived order " + order;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package restful.tdd;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+public class RouteCompilerTest {
+    private static final int ROUTES = 10_000;
+    private static final Duration BUDGET = Duration.ofSeconds(2);
+
+    @Test
+    public void should_share_template_for_same_template_string() {
+        List<ResourceRouter.Resource> resources = new RouteCompiler()
+                .add("/items/{id}", new Item())
+                .add("/items/{id}", new Item())
+                .getResources();
+
+        Assertions.assertSame(resources.get(0).getUriTemplate(), resources.get(1).getUriTemplate());
+    }
+
+    @Test
+    public void should_compile_root_resource_class() {
+        RouteCompiler compiler = new RouteCompiler().add(Users.class);
+
+        Assertions.assertEquals(1, compiler.getResources().size());
+        Assertions.assertTrue(compiler.getResources().get(0).getUriTemplate().match("/users/1").isPresent());
+    }
+
+    @Test
+    public void should_report_compile_time_per_resource_class() {
+        RouteCompiler.Report report = new RouteCompiler()
+                .add(Users.class)
+                .add("/items/1", new Item())
+                .add("/items/2", new Item())
+                .getReport();
+
+        Assertions.assertEquals(3, report.roots());
+        Assertions.assertEquals(List.of(Users.class, Item.class), report.classes().stream().map(RouteCompiler.ClassReport::resourceClass).toList());
+        Assertions.assertEquals(2, report.classes().get(1).roots());
+        Assertions.assertTrue(report.toString().contains(Users.class.getName()));
+    }
+
+    @Test
+    public void should_report_templates_compiled_for_first_time() {
+        RouteCompiler.Report report = new RouteCompiler()
+                .add("/reported/{id}", new Item())
+                .add("/reported/{id}", new Item())
+                .add("/reported/{id}/details", new Item())
+                .getReport();
+
+        Assertions.assertEquals(2, report.newTemplates());
+    }
+
+    @Test
+    public void should_compile_and_route_10k_resources_within_budget() {
+        Optional<ResourceRouter.Resource> matched = Assertions.assertTimeout(BUDGET, () -> {
+            RouteCompiler compiler = new RouteCompiler();
+            for (int i = 0; i < ROUTES; i++) compiler.add("/items" + i + "/{id}", new Item());
+
+            RouteTree<ResourceRouter.Resource> routes = new RouteTree<>(compiler.getResources());
+            return UriHandlers.match("/items" + (ROUTES - 1) + "/1", routes, r -> true);
+        });
+
+        Assertions.assertEquals("/items" + (ROUTES - 1) + "/1", matched.get().getUriTemplate().match("/items" + (ROUTES - 1) + "/1").get().getMatchedPath());
+    }
+
+    @Path("/users")
+    public static class Users {
+        @GET
+        @Path("/{id}")
+        public String get(@PathParam("id") String id) {
+            return id;
+        }
+    }
+
+    public static class Item {
+        @GET
+        public String get() {
+            return "item";
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package restful.tdd;
+
+import jakarta.ws.rs.GET;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+
+@Tag("integration")
+public class RouteFootprintTest {
+    private static final int ROUTES = 50_000;
+    private static final long BYTES_PER_ROUTE = 600;
+
+    @Test
+    public void should_keep_retained_route_table_footprint_within_budget() {
+        Item item = new Item();
+        List<String> templates = new ArrayList<>(ROUTES);
+        for (int i = 0; i < ROUTES; i++) templates.add("/tenants/t" + i + "/users/{id}/orders/{order}");
+
+        long before = retainedHeap();
+        List<ResourceRouter.Resource> resources = new ArrayList<>(ROUTES);
+        for (String template : templates) resources.add(new RootResourceHandler(item, new PathTemplate(template)));
+        RouteTree<ResourceRouter.Resource> routes = new RouteTree<>(resources);
+        resources = null;
+        long bytesPerRoute = (retainedHeap() - before) / ROUTES;
+
+        Assertions.assertTrue(UriHandlers.match("/tenants/t1/users/1/orders/2", routes, r -> true).isPresent());
+        Assertions.assertTrue(bytesPerRoute < BYTES_PER_ROUTE, bytesPerRoute + " bytes per route");
+        Reference.reachabilityFence(routes);
+        Reference.reachabilityFence(templates);
+    }
+
+    private static long retainedHeap() {
+        java.lang.Runtime runtime = java.lang.Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long current = runtime.totalMemory() - runtime.freeMemory();
+            if (current >= used) break;
+            used = current;
+        }
+        return used;
+    }
+
+    public static class Item {
+        @GET
+        public String get() {
+            return "item";
+        }
+    }
+}
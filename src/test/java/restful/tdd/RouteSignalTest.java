@@ -0,0 +1,107 @@
+package restful.tdd;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class RouteSignalTest {
+    private DefaultResourceRouter router;
+    private ResourceContext context;
+
+    @BeforeEach
+    public void before() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        Mockito.when(delegate.createResponseBuilder()).thenAnswer(i -> new StubResponseBuilder());
+
+        Runtime runtime = Mockito.mock(Runtime.class);
+        Mockito.when(runtime.createUriInfoBuilder(any())).thenAnswer(i -> new StubUriInfoBuilder());
+
+        context = Mockito.mock(ResourceContext.class);
+        Mockito.when(context.getResource(eq(Users.class))).thenReturn(new Users());
+        router = new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Users.class)));
+    }
+
+    @Test
+    public void should_return_405_with_allowed_methods_if_path_matched_other_methods() {
+        OutboundResponse response = router.dispatch(request("DELETE", "/users/1"), context);
+
+        Assertions.assertEquals(405, response.getStatus());
+        Assertions.assertEquals(Set.of("GET", "HEAD", "OPTIONS"), response.getAllowedMethods());
+    }
+
+    @Test
+    public void should_return_404_if_sub_resource_locator_returns_null() {
+        Assertions.assertEquals(404, router.dispatch(request("GET", "/users/0/orders"), context).getStatus());
+    }
+
+    @Test
+    public void should_return_404_if_no_resource_matched() {
+        Assertions.assertEquals(404, router.dispatch(request("GET", "/customers"), context).getStatus());
+    }
+
+    @Test
+    public void should_return_400_if_path_parameter_can_not_be_converted() {
+        Assertions.assertEquals(400, router.dispatch(request("GET", "/users/john"), context).getStatus());
+        Assertions.assertEquals(400, router.dispatch(request("GET", "/users/99999999999999999999"), context).getStatus());
+    }
+
+    @Test
+    public void should_keep_web_application_exception_thrown_by_resource() {
+        WebApplicationException exception = Assertions.assertThrows(WebApplicationException.class,
+                () -> router.dispatch(request("GET", "/users/-1/orders"), context));
+
+        Assertions.assertEquals(403, exception.getResponse().getStatus());
+    }
+
+    @Test
+    public void should_not_fill_stack_trace_for_signals() {
+        Assertions.assertEquals(0, RouteSignal.NOT_FOUND.getStackTrace().length);
+        Assertions.assertEquals(0, RouteSignal.BAD_REQUEST.getStackTrace().length);
+        Assertions.assertEquals(0, RouteSignal.methodNotAllowed(Set.of("GET")).getStackTrace().length);
+    }
+
+    private static HttpServletRequest request(String method, String path) {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getMethod()).thenReturn(method);
+        Mockito.when(request.getServletPath()).thenReturn(path);
+        Mockito.when(request.getHeader(eq(HttpHeaders.ACCEPT))).thenReturn(MediaType.WILDCARD);
+        Mockito.when(request.getHeaders(eq(HttpHeaders.ACCEPT))).thenAnswer(i -> new Vector<>(List.of(MediaType.WILDCARD)).elements());
+        return request;
+    }
+
+    @Path("/users/{id}")
+    public static class Users {
+        @GET
+        public String get(@PathParam("id") long id) {
+            return "user " + id;
+        }
+
+        @Path("/orders")
+        public Orders orders(@PathParam("id") long id) {
+            if (id < 0) throw new WebApplicationException(403);
+            return id == 0 ? null : new Orders();
+        }
+    }
+
+    public static class Orders {
+        @GET
+        public String get() {
+            return "orders";
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package restful.tdd;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.*;
+
+import static org.mockito.ArgumentMatchers.*;
+
+public class RouteTableTest {
+    private Runtime runtime;
+    private ResourceContext context;
+
+    @BeforeEach
+    public void before() {
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        Mockito.when(delegate.createResponseBuilder()).thenAnswer(i -> new StubResponseBuilder());
+
+        runtime = Mockito.mock(Runtime.class);
+        Mockito.when(runtime.createUriInfoBuilder(any())).thenAnswer(i -> new StubUriInfoBuilder());
+
+        context = Mockito.mock(ResourceContext.class);
+        Mockito.when(context.getResource(eq(Users.class))).thenReturn(new Users());
+        Mockito.when(context.getResource(eq(Orders.class))).thenReturn(new Orders());
+    }
+
+    @Test
+    public void should_route_to_resources_added_by_reload() {
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Users.class)));
+        Assertions.assertEquals(404, router.dispatch(request("/orders"), context).getStatus());
+
+        router.reload(List.of(new RootResourceHandler(Users.class), new RootResourceHandler(Orders.class)));
+
+        Assertions.assertEquals("orders", router.dispatch(request("/orders"), context).getGenericEntity().getEntity());
+        Assertions.assertEquals("users", router.dispatch(request("/users"), context).getGenericEntity().getEntity());
+    }
+
+    @Test
+    public void should_stop_routing_to_resources_removed_by_reload() {
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Users.class), new RootResourceHandler(Orders.class)));
+
+        router.reload(List.of(new RootResourceHandler(Users.class)));
+
+        Assertions.assertEquals(404, router.dispatch(request("/orders"), context).getStatus());
+    }
+
+    @Test
+    public void should_keep_previous_table_unchanged_after_reload() {
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Users.class)));
+        RouteTable previous = router.getRouteTable();
+
+        router.reload(List.of(new RootResourceHandler(Orders.class)));
+
+        Assertions.assertNotSame(previous, router.getRouteTable());
+        Assertions.assertEquals(1, previous.getResources().size());
+        Assertions.assertTrue(UriHandlers.match("/users", previous.getRoutes(), r -> true).isPresent());
+    }
+
+    @Test
+    public void should_not_replay_cached_routes_from_previous_table() {
+        RouteCache cache = new RouteCache(16);
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Users.class), new RootResourceHandler(Orders.class)), cache);
+        Assertions.assertEquals("orders", router.dispatch(request("/orders"), context).getGenericEntity().getEntity());
+
+        router.reload(List.of(new RootResourceHandler(Users.class)));
+
+        Assertions.assertEquals(404, router.dispatch(request("/orders"), context).getStatus());
+        Assertions.assertNotSame(cache, router.getRouteTable().getCache());
+        Assertions.assertEquals(0, router.getRouteTable().getCache().size());
+    }
+
+    @Test
+    public void should_dispatch_concurrently_with_reload() throws Exception {
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Users.class)));
+        List<ResourceRouter.Resource> withOrders = List.of(new RootResourceHandler(Users.class), new RootResourceHandler(Orders.class));
+        List<ResourceRouter.Resource> withoutOrders = List.of(new RootResourceHandler(Users.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+                requests.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++)
+                        Assertions.assertEquals("users", router.dispatch(request("/users"), context).getGenericEntity().getEntity());
+                }));
+            for (int i = 0; i < 1000; i++) router.reload(i % 2 == 0 ? withOrders : withoutOrders);
+            for (Future<?> future : requests) future.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static HttpServletRequest request(String path) {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getMethod()).thenReturn("GET");
+        Mockito.when(request.getServletPath()).thenReturn(path);
+        Mockito.when(request.getHeader(eq(HttpHeaders.ACCEPT))).thenReturn(MediaType.WILDCARD);
+        Mockito.when(request.getHeaders(eq(HttpHeaders.ACCEPT))).thenAnswer(i -> new Vector<>(List.of(MediaType.WILDCARD)).elements());
+        return request;
+    }
+
+    @Path("/users")
+    public static class Users {
+        @GET
+        public String get() {
+            return "users";
+        }
+    }
+
+    @Path("/orders")
+    public static class Orders {
+        @GET
+        public String get() {
+            return "orders";
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package restful.tdd;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Optional;
+
+public class RouteTreeTest {
+
+    @ParameterizedTest(name = "{2}")
+    @CsvSource(textBlock = """
+            /users,                 /users,                 literal template
+            /users/1,               /users,                 literal template with remaining
+            /users/1,               /users/{id},            default variable template
+            /users/1/orders,        /users/{id}/orders,     literal after variable
+            /users/1,               /users/{id:[0-9]+},     template with specific pattern
+            /users.json,            /users.json,            template with regex meta character
+            /users,                 '',                     empty template
+            """)
+    public void should_return_handler_as_candidate_if_template_may_match(String path, String template, String context) {
+        Handler handler = new Handler(template);
+        RouteTree<Handler> tree = new RouteTree<>(List.of(handler));
+
+        Assertions.assertEquals(List.of(handler), tree.candidates(path));
+    }
+
+    @ParameterizedTest(name = "{2}")
+    @CsvSource(textBlock = """
+            /orders,                /users,                 different literal
+            /usersx,                /users,                 literal prefix of segment
+            /users/,                /users/{id},            empty variable segment
+            users,                  /users,                 path without leading slash
+            """)
+    public void should_not_return_handler_as_candidate_if_template_can_not_match(String path, String template, String context) {
+        RouteTree<Handler> tree = new RouteTree<>(List.of(new Handler(template)));
+
+        Assertions.assertTrue(tree.candidates(path).isEmpty());
+    }
+
+    @Test
+    public void should_keep_handlers_order_in_candidates() {
+        Handler variable = new Handler("/users/{id}");
+        Handler custom = new Handler("/users/{id:[0-9]+}");
+        Handler literal = new Handler("/users/1");
+        Handler root = new Handler("/users");
+        RouteTree<Handler> tree = new RouteTree<>(List.of(variable, custom, literal, root));
+
+        Assertions.assertEquals(List.of(variable, custom, literal, root), tree.candidates("/users/1"));
+    }
+
+    @Test
+    public void should_always_return_handler_with_unknown_template_as_candidate() {
+        Handler handler = new Handler(Mockito.mock(UriTemplate.class));
+        RouteTree<Handler> tree = new RouteTree<>(List.of(handler, new Handler("/users")));
+
+        Assertions.assertEquals(List.of(handler), tree.candidates("/orders"));
+    }
+
+    @Test
+    public void should_match_same_handler_as_linear_scan() {
+        List<Handler> handlers = List.of(new Handler("/users"), new Handler("/users/{id}"), new Handler("/users/{id:[0-9]+}"),
+                new Handler("/users/1234"), new Handler("/{resources}/1234/{action}"), new Handler("/users/{id}/orders"), new Handler(""));
+        RouteTree<Handler> tree = new RouteTree<>(handlers);
+
+        for (String path : List.of("/users", "/users/1234", "/users/john", "/users/1234/orders", "/orders/1234/cancel", "/", "/orders"))
+            Assertions.assertEquals(UriHandlers.match(path, handlers), UriHandlers.match(path, tree, r -> true), path);
+    }
+
+    @Test
+    public void should_return_empty_if_no_handler_matched() {
+        RouteTree<Handler> tree = new RouteTree<>(List.of(new Handler("/users")));
+
+        Assertions.assertEquals(Optional.empty(), UriHandlers.match("/orders", tree, r -> true));
+    }
+
+    @Test
+    public void should_match_same_handler_as_linear_scan_in_adaptive_mode() {
+        List<Handler> handlers = List.of(new Handler("/users"), new Handler("/users/{id}"), new Handler("/users/{id:[0-9]+}"),
+                new Handler("/users/1234"), new Handler("/{resources}/1234/{action}"), new Handler("/users/{id}/orders"),
+                new Handler("/{resources}/{id}"), new Handler(""));
+        RouteTree<Handler> tree = new RouteTree<>(handlers, true);
+        List<String> paths = List.of("/users", "/users/1234", "/users/john", "/users/1234/orders", "/orders/1234/cancel", "/orders/1", "/", "/orders");
+
+        for (int round = 0; round < 3; round++) {
+            for (String path : paths)
+                Assertions.assertEquals(UriHandlers.match(path, handlers), UriHandlers.match(path, tree, r -> true), path);
+            for (int i = 0; i < 100; i++) UriHandlers.match("/orders/1", tree, r -> true);
+            tree.reorder();
+        }
+    }
+
+    @Test
+    public void should_try_hot_handlers_first_after_reorder() {
+        Handler users = new Handler("/users/{id}");
+        Handler resources = new Handler("/{resources}/{id}");
+        RouteTree<Handler> tree = new RouteTree<>(List.of(users, resources), true);
+
+        for (int i = 0; i < 10; i++) UriHandlers.match("/orders/1", tree, r -> true);
+        tree.reorder();
+
+        Assertions.assertArrayEquals(new int[]{1, 0}, tree.indexes("/users/1"));
+        Assertions.assertEquals(Optional.of(users), UriHandlers.match("/users/1", tree, r -> true));
+    }
+
+    @Test
+    public void should_keep_declaration_order_for_equal_ranked_handlers_in_adaptive_mode() {
+        Handler first = new Handler("/{a}");
+        Handler second = new Handler("/{b}");
+        RouteTree<Handler> tree = new RouteTree<>(List.of(first, second), true);
+
+        for (int i = 0; i < 10; i++) tree.hit(1);
+        tree.reorder();
+
+        Assertions.assertArrayEquals(new int[]{1, 0}, tree.indexes("/users"));
+        Assertions.assertEquals(Optional.of(first), UriHandlers.match("/users", tree, r -> true));
+    }
+
+    @Test
+    public void should_stop_matching_once_result_can_not_be_beaten_in_adaptive_mode() {
+        CountingTemplate variable = new CountingTemplate("/users/{id}");
+        CountingTemplate literal = new CountingTemplate("/users/1");
+        RouteTree<Handler> tree = new RouteTree<>(List.of(new Handler(variable), new Handler(literal)), true);
+
+        for (int i = 0; i < 10; i++) UriHandlers.match("/users/1", tree, r -> true);
+        tree.reorder();
+        variable.count = 0;
+
+        Assertions.assertEquals(Optional.of(new Handler(literal)), UriHandlers.match("/users/1", tree, r -> true));
+        Assertions.assertEquals(0, variable.count);
+    }
+
+    @Test
+    public void should_not_stop_matching_before_unknown_templates_in_adaptive_mode() {
+        UriTemplate unknown = Mockito.mock(UriTemplate.class);
+        Mockito.when(unknown.match("/users")).thenReturn(Optional.empty());
+        RouteTree<Handler> tree = new RouteTree<>(List.of(new Handler("/users"), new Handler(unknown)), true);
+
+        UriHandlers.match("/users", tree, r -> true);
+
+        Mockito.verify(unknown).match("/users");
+    }
+
+    static class CountingTemplate extends PathTemplate {
+        int count;
+
+        CountingTemplate(String template) {
+            super(template);
+        }
+
+        @Override
+        public Optional<MatchResult> match(String path) {
+            count++;
+            return super.match(path);
+        }
+    }
+
+    record Handler(UriTemplate template) implements UriHandler {
+        Handler(String template) {
+            this(new PathTemplate(template));
+        }
+
+        @Override
+        public UriTemplate getUriTemplate() {
+            return template;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package restful.tdd;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class StatusResponseTest {
+
+    @Test
+    public void should_share_response_for_same_status() {
+        Assertions.assertSame(StatusResponse.of(Response.Status.NOT_FOUND), StatusResponse.of(Response.Status.NOT_FOUND));
+        Assertions.assertSame(StatusResponse.of(Response.Status.NO_CONTENT), StatusResponse.of(Response.Status.NO_CONTENT, Set.of()));
+    }
+
+    @Test
+    public void should_not_have_entity_or_headers() {
+        StatusResponse response = StatusResponse.of(Response.Status.NO_CONTENT);
+
+        Assertions.assertEquals(204, response.getStatus());
+        Assertions.assertNull(response.getEntity());
+        Assertions.assertNull(response.getGenericEntity());
+        Assertions.assertFalse(response.hasEntity());
+        Assertions.assertTrue(response.getHeaders().isEmpty());
+    }
+
+    @Test
+    public void should_include_allow_header_for_allowed_methods() {
+        StatusResponse response = StatusResponse.of(Response.Status.METHOD_NOT_ALLOWED, Set.of("POST", "GET"));
+
+        Assertions.assertEquals(Set.of("POST", "GET"), response.getAllowedMethods());
+        Assertions.assertEquals("GET,POST", response.getHeaderString(HttpHeaders.ALLOW));
+        Assertions.assertEquals(List.of("GET,POST"), response.getHeaders().get(HttpHeaders.ALLOW));
+    }
+
+    @Test
+    public void should_not_modify_shared_headers() {
+        StatusResponse response = StatusResponse.of(Response.Status.NOT_FOUND);
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> response.getHeaders().add(HttpHeaders.ALLOW, "GET"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> response.getStringHeaders().putSingle(HttpHeaders.ALLOW, "GET"));
+    }
+}
@@ -0,0 +1,179 @@
+package restful.tdd;
+
+import jakarta.servlet.Servlet;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ResourceContext;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
+import jakarta.ws.rs.ext.RuntimeDelegate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class StreamingServletTest extends ServletTest {
+    private static final int CHUNK = 64 * 1024;
+
+    private static final AtomicBoolean closed = new AtomicBoolean();
+    private static final AtomicBoolean released = new AtomicBoolean();
+    private static CountDownLatch received;
+
+    private Providers providers;
+
+    @Override
+    protected Servlet getServlet() {
+        Runtime runtime = Mockito.mock(Runtime.class);
+        providers = Mockito.mock(Providers.class);
+        ResourceContext context = Mockito.mock(ResourceContext.class);
+        ResourceRouter router = new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Exports.class)));
+
+        when(runtime.getResourceRouter()).thenReturn(router);
+        when(runtime.createUriInfoBuilder(any())).thenAnswer(i -> new StubUriInfoBuilder());
+        when(runtime.createResourceContext(any(), any())).thenReturn(context);
+        when(runtime.getProviders()).thenReturn(providers);
+        when(context.getResource(eq(Exports.class))).thenReturn(new Exports());
+        return new ResourceServlet(runtime);
+    }
+
+    @BeforeEach
+    public void before() {
+        closed.set(false);
+        released.set(false);
+        received = new CountDownLatch(1);
+
+        RuntimeDelegate delegate = Mockito.mock(RuntimeDelegate.class);
+        RuntimeDelegate.setInstance(delegate);
+        when(delegate.createResponseBuilder()).thenAnswer(i -> new StubResponseBuilder());
+        when(providers.getMessageBodyWriter(eq(String.class), eq(String.class), any(), any())).thenReturn(new MessageBodyWriter<>() {
+            @Override
+            public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+                return true;
+            }
+
+            @Override
+            public void writeTo(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+                entityStream.write(s.getBytes(StandardCharsets.UTF_8));
+                entityStream.close();
+            }
+        });
+    }
+
+    @Test
+    public void should_write_streaming_output_directly() {
+        HttpResponse<String> response = get("/exports/output");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("streamed", response.body());
+    }
+
+    @Test
+    public void should_write_each_element_of_stream_and_close_it() {
+        HttpResponse<String> response = get("/exports/stream");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("a\nb\nc\n", response.body());
+        Assertions.assertTrue(closed.get());
+    }
+
+    @Test
+    public void should_write_each_element_of_iterator() {
+        HttpResponse<String> response = get("/exports/iterator");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("xyz", response.body());
+    }
+
+    @Test
+    public void should_write_large_stream_without_content_length() {
+        HttpResponse<String> response = get("/exports/large");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals(1024 * 1024, response.body().length());
+        Assertions.assertTrue(response.headers().firstValue("Content-Length").isEmpty());
+    }
+
+    @Test
+    public void should_send_first_elements_before_stream_is_exhausted() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(path("/exports/slow")).GET().build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        try (InputStream body = response.body()) {
+            Assertions.assertEquals('a', body.read());
+            received.countDown();
+            Assertions.assertEquals(CHUNK + "end".length(), 1 + body.readAllBytes().length);
+        }
+        Assertions.assertTrue(released.get());
+    }
+
+    @Test
+    public void should_close_stream_for_head_request() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(path("/exports/stream")).method("HEAD", HttpRequest.BodyPublishers.noBody()).build();
+
+        Assertions.assertEquals(204, HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        Assertions.assertTrue(closed.get());
+    }
+
+    @Path("/exports")
+    public static class Exports {
+        @GET
+        @Path("/output")
+        public StreamingOutput output() {
+            return output -> output.write("streamed".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @GET
+        @Path("/stream")
+        public Stream<String> stream() {
+            return Stream.of("a", "b", "c").map(s -> s + "\n").onClose(() -> closed.set(true));
+        }
+
+        @GET
+        @Path("/iterator")
+        public Iterator<String> iterator() {
+            return List.of("x", "y", "z").iterator();
+        }
+
+        @GET
+        @Path("/large")
+        public Stream<String> large() {
+            return Stream.generate(() -> "0".repeat(1024)).limit(1024);
+        }
+
+        @GET
+        @Path("/slow")
+        public Stream<String> slow() {
+            return Stream.of("a".repeat(CHUNK), "end").peek(s -> {
+                if (!s.equals("end")) return;
+                try {
+                    released.set(received.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package restful.tdd;
+
+import jakarta.ws.rs.container.CompletionCallback;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SuspendedResponseTest {
+    private final SuspendedResponse response = new SuspendedResponse();
+
+    @Test
+    public void should_complete_with_503_when_timed_out() throws Exception {
+        response.setTimeout(20, TimeUnit.MILLISECONDS);
+
+        Object result = response.stage().toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(503, ((StatusResponse) result).getStatus());
+    }
+
+    @Test
+    public void should_replace_previous_timeout() throws Exception {
+        response.setTimeout(20, TimeUnit.MILLISECONDS);
+        response.setTimeout(10, TimeUnit.SECONDS);
+
+        Thread.sleep(200);
+
+        Assertions.assertTrue(response.isSuspended());
+    }
+
+    @Test
+    public void should_send_retry_after_seconds_when_cancelled() throws Exception {
+        Assertions.assertTrue(response.cancel(120));
+
+        StatusResponse result = (StatusResponse) response.stage().toCompletableFuture().get();
+        Assertions.assertEquals(503, result.getStatus());
+        Assertions.assertEquals("120", result.getHeaderString(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals(List.of("120"), result.getHeaders().get(HttpHeaders.RETRY_AFTER));
+        Assertions.assertTrue(response.isCancelled());
+    }
+
+    @Test
+    public void should_send_retry_after_date_when_cancelled() throws Exception {
+        Assertions.assertTrue(response.cancel(Date.from(Instant.parse("2030-01-02T03:04:05Z"))));
+
+        StatusResponse result = (StatusResponse) response.stage().toCompletableFuture().get();
+        Assertions.assertEquals("Wed, 2 Jan 2030 03:04:05 GMT", result.getHeaderString(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    public void should_notify_completion_callback_when_resumed() {
+        AtomicReference<Throwable> notified = new AtomicReference<>(new Throwable());
+
+        Assertions.assertEquals(Set.of(CompletionCallback.class), response.register((CompletionCallback) notified::set));
+        response.resume("done");
+
+        Assertions.assertNull(notified.get());
+    }
+
+    @Test
+    public void should_notify_completion_callback_with_failure() {
+        AtomicReference<Throwable> notified = new AtomicReference<>();
+        IllegalStateException failure = new IllegalStateException();
+
+        response.register((CompletionCallback) notified::set);
+        response.resume(failure);
+
+        Assertions.assertSame(failure, notified.get());
+    }
+
+    @Test
+    public void should_instantiate_registered_callback_class() {
+        Counting.calls = 0;
+
+        Map<Class<?>, Collection<Class<?>>> registered = response.register(Counting.class, Object.class);
+        response.resume("done");
+
+        Assertions.assertEquals(Set.of(CompletionCallback.class), registered.get(Counting.class));
+        Assertions.assertEquals(Set.of(), registered.get(Object.class));
+        Assertions.assertEquals(1, Counting.calls);
+    }
+
+    public static class Counting implements CompletionCallback {
+        static int calls;
+
+        @Override
+        public void onComplete(Throwable throwable) {
+            calls++;
+        }
+    }
+}
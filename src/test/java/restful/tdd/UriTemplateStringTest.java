@@ -2,6 +2,11 @@ package restful.tdd;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Map;
+import java.util.Optional;
 
 public class UriTemplateStringTest {
 
@@ -81,6 +86,72 @@ public class UriTemplateStringTest {
         Assertions.assertEquals(0, result.compareTo(result));
     }
 
+    @ParameterizedTest
+    @CsvSource({"SEGMENTS", "REGEX"})
+    public void should_extract_path_parameters_from_original_path(PathTemplate.Strategy strategy) {
+        PathTemplate template = new PathTemplate("/users/{id}/orders/{order}", strategy);
+
+        UriTemplate.MatchResult result = template.match("/users/1/orders/22/items").get();
+
+        Assertions.assertEquals("/users/1/orders/22", result.getMatchedPath());
+        Assertions.assertEquals("/items", result.getRemaining());
+        Assertions.assertEquals(Map.of("id", "1", "order", "22"), result.getMatchedPathParameters());
+        Assertions.assertSame(result.getMatchedPathParameters(), result.getMatchedPathParameters());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> result.getMatchedPathParameters().put("id", "2"));
+    }
+
+    @ParameterizedTest(name = "[{index}] {0} {1}")
+    @CsvSource(textBlock = """
+            /users,                 SEGMENTS
+            /users/{id},            SEGMENTS
+            /users/{id}/orders,     SEGMENTS
+            '',                     SEGMENTS
+            /users/{id:[0-9]+},     REGEX
+            /users.json,            REGEX
+            /,                      REGEX
+            users,                  REGEX
+            """)
+    public void should_use_segment_matcher_if_template_has_no_custom_regex(String template, PathTemplate.Strategy strategy) {
+        Assertions.assertEquals(strategy, new PathTemplate(template).getStrategy());
+    }
+
+    @ParameterizedTest(name = "[{index}] {0} {1}")
+    @CsvSource(textBlock = """
+            /users,                 /users
+            /users,                 /users/
+            /users,                 /users/1
+            /users,                 /usersx
+            /users,                 /orders
+            /users,                 ''
+            /users/{id},            /users/1
+            /users/{id},            /users/1/orders
+            /users/{id},            /users/
+            /users/{id},            /users//orders
+            /users/{id}/orders,     /users/1/orders
+            /users/{id}/orders,     /users/1/orders/2
+            /users/{id}/orders,     /users/1/ordersx
+            /{a}/{b},               /1/2/3
+            /{a}/{b},               /1
+            '',                     ''
+            '',                     /users
+            '',                     users
+            """)
+    public void should_match_same_as_regex_matcher(String template, String path) {
+        PathTemplate segments = new PathTemplate(template, PathTemplate.Strategy.SEGMENTS);
+        PathTemplate regex = new PathTemplate(template, PathTemplate.Strategy.REGEX);
+
+        Optional<UriTemplate.MatchResult> expected = regex.match(path);
+        Optional<UriTemplate.MatchResult> actual = segments.match(path);
+
+        Assertions.assertEquals(PathTemplate.Strategy.SEGMENTS, segments.getStrategy());
+        Assertions.assertEquals(expected.isPresent(), actual.isPresent());
+        if (expected.isEmpty()) return;
+        Assertions.assertEquals(expected.get().getMatchedPath(), actual.get().getMatchedPath());
+        Assertions.assertEquals(expected.get().getRemaining(), actual.get().getRemaining());
+        Assertions.assertEquals(expected.get().getMatchedPathParameters(), actual.get().getMatchedPathParameters());
+        Assertions.assertEquals(0, expected.get().compareTo(actual.get()));
+    }
+
 
     private static void assertSmaller(String path, String smallerTemplate, String largerTemplate) {
         PathTemplate smaller = new PathTemplate(smallerTemplate);
@@ -93,6 +164,15 @@ public class UriTemplateStringTest {
         Assertions.assertTrue(rhs.compareTo(lhs) > 0);
     }
 
+    @Test
+    public void should_share_literal_segments_between_templates() {
+        PathTemplate first = new PathTemplate(new String("/tenants/a/users/{id}"));
+        PathTemplate second = new PathTemplate(new String("/tenants/b/users/{id}"));
+
+        Assertions.assertSame(first.getSegments().get().get(0).value(), second.getSegments().get().get(0).value());
+        Assertions.assertSame(first.getSegments().get().get(2).value(), second.getSegments().get().get(2).value());
+    }
+
     // TODO: throw exception if variable redefined.
     // TODO: comparing result, with match literal, variables, and specified variables.
 }
@@ -0,0 +1,52 @@
+package restful.tdd;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+public class WeakInternerTest {
+
+    @Test
+    public void should_return_same_value_while_it_is_reachable() {
+        WeakInterner<List<String>> interner = new WeakInterner<>();
+
+        List<String> first = interner.intern(List.of("id"));
+        List<String> second = interner.intern(List.of("id"));
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void should_drop_entry_once_value_is_unreachable() {
+        WeakInterner<List<String>> interner = new WeakInterner<>();
+        WeakReference<List<String>> value = new WeakReference<>(interner.intern(List.of(new String("id"))));
+
+        Assertions.assertTrue(collected(value));
+        Assertions.assertEquals(0, interner.size());
+        Assertions.assertNotNull(interner.intern(List.of("id")));
+    }
+
+    @Test
+    public void should_release_path_templates_no_longer_used_by_any_route() {
+        WeakReference<PathTemplate> template = new WeakReference<>(PathTemplate.of("/released/{tenant}/literal-only-here"));
+
+        Assertions.assertTrue(collected(template));
+        Assertions.assertNotNull(PathTemplate.of("/released/{tenant}/literal-only-here").match("/released/t1/literal-only-here").orElse(null));
+    }
+
+    @Test
+    public void should_share_variable_table_between_templates() {
+        PathTemplate first = PathTemplate.of("/shared-variables/a/{id}");
+        PathTemplate second = PathTemplate.of("/shared-variables/b/{id}");
+
+        Assertions.assertSame(first.getVariables(), second.getVariables());
+    }
+
+    private static boolean collected(WeakReference<?> reference) {
+        for (int i = 0; i < 20 && reference.get() != null; i++) System.gc();
+        return reference.get() == null;
+    }
+}
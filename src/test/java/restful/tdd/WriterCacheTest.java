@@ -0,0 +1,165 @@
+package restful.tdd;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Providers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class WriterCacheTest {
+    private Providers providers;
+    private MessageBodyWriter<String> writer;
+    private WriterCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void before() {
+        providers = Mockito.mock(Providers.class);
+        writer = Mockito.mock(MessageBodyWriter.class);
+        when(providers.getMessageBodyWriter(eq(String.class), eq(String.class), any(), any())).thenReturn(writer);
+        cache = new WriterCache(providers);
+    }
+
+    @Test
+    public void should_resolve_writer_once_for_same_type_and_media_type() {
+        Assertions.assertSame(writer, cache.get(String.class, String.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE));
+        Assertions.assertSame(writer, cache.get(String.class, String.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE));
+
+        verify(providers, times(1)).getMessageBodyWriter(eq(String.class), eq(String.class), any(), eq(MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Test
+    public void should_resolve_writer_for_each_media_type() {
+        cache.get(String.class, String.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE);
+        cache.get(String.class, String.class, new Annotation[0], MediaType.TEXT_HTML_TYPE);
+        cache.get(String.class, String.class, new Annotation[0], null);
+
+        verify(providers, times(3)).getMessageBodyWriter(eq(String.class), eq(String.class), any(), any());
+        Assertions.assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void should_not_cache_missing_writer() {
+        Assertions.assertNull(cache.get(Double.class, Double.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE));
+        Assertions.assertNull(cache.get(Double.class, Double.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE));
+
+        verify(providers, times(2)).getMessageBodyWriter(eq(Double.class), eq(Double.class), any(), any());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void should_resolve_annotated_writer_separately() throws Exception {
+        Annotation[] annotations = Resources.class.getMethod("plain").getAnnotations();
+
+        cache.get(String.class, String.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE);
+        cache.get(String.class, String.class, annotations, MediaType.TEXT_PLAIN_TYPE);
+        cache.get(String.class, String.class, Resources.class.getMethod("plain").getAnnotations(), MediaType.TEXT_PLAIN_TYPE);
+
+        verify(providers, times(1)).getMessageBodyWriter(eq(String.class), eq(String.class), eq(new Annotation[0]), any());
+        verify(providers, times(1)).getMessageBodyWriter(eq(String.class), eq(String.class), eq(annotations), any());
+    }
+
+    @Test
+    public void should_collect_bindings_for_statically_known_return_types() {
+        List<WriterCache.Binding> bindings = WriterCache.bindings(Resources.class.getMethods());
+
+        Assertions.assertEquals(Set.of(
+                new WriterCache.Binding(String.class, String.class, MediaType.TEXT_PLAIN_TYPE),
+                new WriterCache.Binding(String.class, String.class, MediaType.TEXT_HTML_TYPE),
+                new WriterCache.Binding(Integer.class, Integer.class, null)), Set.copyOf(bindings));
+        Assertions.assertEquals(3, bindings.size());
+    }
+
+    @Test
+    public void should_prebind_writers_of_routes_when_servlet_initialized() throws Exception {
+        Runtime runtime = Mockito.mock(Runtime.class);
+        when(runtime.getProviders()).thenReturn(providers);
+        when(runtime.getResourceRouter()).thenReturn(new DefaultResourceRouter(runtime, List.of(new RootResourceHandler(Resources.class))));
+
+        ResourceServlet servlet = new ResourceServlet(runtime);
+        servlet.init();
+
+        verify(providers).getMessageBodyWriter(eq(String.class), eq(String.class), any(), eq(MediaType.TEXT_PLAIN_TYPE));
+        Assertions.assertSame(writer, servlet.getWriterCache().get(String.class, String.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE));
+        verify(providers, times(1)).getMessageBodyWriter(eq(String.class), eq(String.class), any(), eq(MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Test
+    public void should_prebind_writers_of_routes_published_by_reload() {
+        Runtime runtime = Mockito.mock(Runtime.class);
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of());
+        when(runtime.getProviders()).thenReturn(providers);
+        when(runtime.getResourceRouter()).thenReturn(router);
+
+        ResourceServlet servlet = new ResourceServlet(runtime);
+        servlet.init();
+        verify(providers, never()).getMessageBodyWriter(any(), any(), any(), any());
+
+        router.reload(List.of(new RootResourceHandler(Resources.class)));
+
+        verify(providers).getMessageBodyWriter(eq(String.class), eq(String.class), any(), eq(MediaType.TEXT_PLAIN_TYPE));
+        Assertions.assertSame(writer, servlet.getWriterCache().get(String.class, String.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE));
+        verify(providers, times(1)).getMessageBodyWriter(eq(String.class), eq(String.class), any(), eq(MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Test
+    public void should_not_publish_reloaded_routes_if_writer_provider_fails() {
+        Runtime runtime = Mockito.mock(Runtime.class);
+        DefaultResourceRouter router = new DefaultResourceRouter(runtime, List.of());
+        when(runtime.getProviders()).thenReturn(providers);
+        when(runtime.getResourceRouter()).thenReturn(router);
+        when(providers.getMessageBodyWriter(eq(Integer.class), eq(Integer.class), any(), any())).thenThrow(new IllegalStateException("broken"));
+        new ResourceServlet(runtime).init();
+
+        RouteTable previous = router.getRouteTable();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> router.reload(List.of(new RootResourceHandler(Resources.class))));
+        Assertions.assertSame(previous, router.getRouteTable());
+    }
+
+    @Path("/resources")
+    public static class Resources {
+        @GET
+        @Produces({MediaType.TEXT_PLAIN, MediaType.TEXT_HTML})
+        public String plain() {
+            return "plain";
+        }
+
+        @GET
+        @Path("/count")
+        public Integer count() {
+            return 1;
+        }
+
+        @GET
+        @Path("/list")
+        public List<String> list() {
+            return List.of();
+        }
+
+        @POST
+        public Response create() {
+            return null;
+        }
+
+        @POST
+        @Path("/nothing")
+        public void nothing() {
+        }
+    }
+}